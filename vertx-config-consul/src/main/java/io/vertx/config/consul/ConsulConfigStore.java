@@ -19,6 +19,7 @@ package io.vertx.config.consul;
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.config.spi.utils.JsonObjectHelper;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.internal.VertxInternal;
@@ -27,6 +28,7 @@ import io.vertx.ext.consul.ConsulClient;
 import io.vertx.ext.consul.ConsulClientOptions;
 import io.vertx.ext.consul.KeyValue;
 import io.vertx.ext.consul.KeyValueList;
+import io.vertx.ext.consul.Watch;
 
 /**
  * @author <a href="mailto:ruslan.sennov@gmail.com">Ruslan Sennov</a>
@@ -34,27 +36,58 @@ import io.vertx.ext.consul.KeyValueList;
 public class ConsulConfigStore implements ConfigStore {
 
   private final VertxInternal vertx;
+  private final ConsulClientOptions options;
   private final ConsulClient client;
   private final String delimiter;
   private final String prefix;
   private final boolean rawData;
+  private final boolean watch;
+  private Watch<KeyValueList> watcher;
 
   ConsulConfigStore(Vertx vertx, JsonObject configuration) {
     this.vertx = (VertxInternal) vertx;
-    client = ConsulClient.create(vertx, new ConsulClientOptions(configuration));
+    options = new ConsulClientOptions(configuration);
+    client = ConsulClient.create(vertx, options);
     delimiter = configuration.getString("delimiter", "/");
     prefix = prefix(configuration.getString("prefix"), delimiter);
     rawData = configuration.getBoolean("raw-data", true);
+    watch = configuration.getBoolean("watch", false);
   }
 
   @Override
   public Future<Buffer> get() {
+    return getJson().map(JsonObject::toBuffer);
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
     return client.getValues(prefix)
-      .map(list -> list.isPresent() ? getTree(list, prefix.length(), delimiter, rawData).toBuffer() : Buffer.buffer("{}"));
+      .map(list -> list.isPresent() ? getTree(list, prefix.length(), delimiter, rawData) : new JsonObject());
   }
 
   @Override
-  public Future<Void> close() {
+  public synchronized boolean watch(Handler<Buffer> handler) {
+    if (!watch) {
+      return false;
+    }
+    // Blocking queries on the prefix, the handler is only called when the consul index changes
+    watcher = Watch.keyPrefix(prefix, vertx, options)
+      .setHandler(result -> {
+        if (result.succeeded()) {
+          KeyValueList list = result.nextResult();
+          handler.handle(list != null && list.isPresent() ?
+            getTree(list, prefix.length(), delimiter, rawData).toBuffer() : Buffer.buffer("{}"));
+        }
+      })
+      .start();
+    return true;
+  }
+
+  @Override
+  public synchronized Future<Void> close() {
+    if (watcher != null) {
+      watcher.stop();
+    }
     client.close();
     return vertx.getOrCreateContext().succeededFuture();
   }
@@ -206,7 +206,7 @@ public class GitConfigStore implements ConfigStore {
   }
 
   private Future<List<File>> read() {
-    return vertx.executeBlocking(() -> FileSet.traverse(path).stream().sorted().collect(toList()));
+    return vertx.executeBlocking(() -> FileSet.traverse(path, filesets).stream().sorted().collect(toList()));
   }
 
   @Override
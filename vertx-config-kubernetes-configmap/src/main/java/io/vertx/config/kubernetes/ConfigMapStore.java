@@ -20,18 +20,26 @@ package io.vertx.config.kubernetes;
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.config.spi.utils.JsonObjectHelper;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEventType;
+import io.vertx.core.parsetools.JsonParser;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.ext.web.codec.BodyCodec;
 
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -40,6 +48,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * An implementation of configuration store reading config map from Kubernetes.
  */
 public class ConfigMapStore implements ConfigStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfigMapStore.class);
   private static final String KUBERNETES_NAMESPACE = System.getenv("KUBERNETES_NAMESPACE");
   private static final Base64.Decoder DECODER = Base64.getDecoder();
   private final VertxInternal vertx;
@@ -49,9 +58,16 @@ public class ConfigMapStore implements ConfigStore {
   private final String key;
   private final boolean secret;
   private final boolean optional;
+  private final boolean watch;
+  private final long watchRetryDelay;
+  private final long watchMaxRetryDelay;
 
   private final WebClient client;
   private String token;
+  private Handler<Buffer> changeHandler;
+  private boolean closed;
+  // The number of watches failed in a row, guarded by this
+  private int watchFailures;
 
 
   public ConfigMapStore(Vertx vertx, JsonObject configuration) {
@@ -71,6 +87,9 @@ public class ConfigMapStore implements ConfigStore {
     this.name = configuration.getString("name");
     this.key = configuration.getString("key");
     this.secret = configuration.getBoolean("secret", false);
+    this.watch = configuration.getBoolean("watch", false);
+    this.watchRetryDelay = configuration.getLong("watchRetryDelay", 1000L);
+    this.watchMaxRetryDelay = configuration.getLong("watchMaxRetryDelay", 60000L);
     int port = configuration.getInteger("port", 0);
     if (port == 0) {
       if (configuration.getBoolean("ssl", true)) {
@@ -104,7 +123,8 @@ public class ConfigMapStore implements ConfigStore {
   }
 
   @Override
-  public Future<Void> close() {
+  public synchronized Future<Void> close() {
+    closed = true;
     if (client != null) {
       client.close();
     }
@@ -129,6 +149,19 @@ public class ConfigMapStore implements ConfigStore {
 
   @Override
   public Future<Buffer> get() {
+    return fetch(this::toBuffer, ConfigMapStore::emptyBuffer);
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
+    if (key != null) {
+      // The value of the key is a document parsed by the processor
+      return null;
+    }
+    return fetch(this::toJson, JsonObject::new);
+  }
+
+  private <T> Future<T> fetch(Function<JsonObject, Future<T>> converter, Supplier<T> empty) {
     Future<String> retrieveToken;
     if (token == null) {
       retrieveToken = getToken();
@@ -138,65 +171,158 @@ public class ConfigMapStore implements ConfigStore {
 
     return retrieveToken.flatMap(token -> {
       if (token.isEmpty()) {
-        return Future.succeededFuture(Buffer.buffer("{}"));
+        return Future.succeededFuture(empty.get());
       }
 
-      String path = "/api/v1/namespaces/" + namespace;
-      if (secret) {
-        path += "/secrets/" + name;
-      } else {
-        path += "/configmaps/" + name;
-      }
-
-      return client.get(path)
+      return client.get(collectionPath() + "/" + name)
         .putHeader("Authorization", "Bearer " + token)
         .send()
         .flatMap(response -> {
           if (response.statusCode() == 404) {
-            return handle404();
+            return handle404(empty);
           }
           if (response.statusCode() == 403) {
             return handle403();
           }
           if (response.statusCode() != 200) {
-            return handleOtherErrors(response);
+            return handleOtherErrors(response, empty);
           }
-          return handle200(response);
+          return converter.apply(response.bodyAsJsonObject());
         });
     });
   }
 
-  private Future<Buffer> handle404() {
+  private String collectionPath() {
+    return "/api/v1/namespaces/" + namespace + (secret ? "/secrets" : "/configmaps");
+  }
+
+  @Override
+  public synchronized boolean watch(Handler<Buffer> handler) {
+    if (!watch) {
+      return false;
+    }
+    changeHandler = handler;
+    startWatch();
+    return true;
+  }
+
+  private void startWatch() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+    }
+    Future<String> retrieveToken = token == null ? getToken() : vertx.getOrCreateContext().succeededFuture(token);
+    retrieveToken.onSuccess(token -> {
+      if (token.isEmpty()) {
+        // Nothing to watch, the store always returns an empty configuration
+        return;
+      }
+      JsonParser parser = JsonParser.newParser().objectValueMode();
+      parser.exceptionHandler(err -> {
+        // Ignored, the watch is restarted when the response ends
+      });
+      parser.handler(event -> {
+        if (event.type() == JsonEventType.VALUE) {
+          onWatchEvent(event.objectValue());
+        }
+      });
+      client.get(collectionPath())
+        .addQueryParam("watch", "true")
+        .addQueryParam("fieldSelector", "metadata.name=" + name)
+        .putHeader("Authorization", "Bearer " + token)
+        .as(BodyCodec.jsonStream(parser))
+        .send()
+        .onComplete(ar -> {
+          if (ar.failed()) {
+            retryWatch(ar.cause().getMessage());
+          } else if (ar.result().statusCode() / 100 != 2) {
+            retryWatch("status code " + ar.result().statusCode());
+          } else {
+            // The API server ends watches after a timeout, restart them until the store is closed
+            synchronized (this) {
+              watchFailures = 0;
+            }
+            vertx.setTimer(watchRetryDelay, l -> startWatch());
+          }
+        });
+    }).onFailure(err -> retryWatch(err.getMessage()));
+  }
+
+  /**
+   * Restarts a failed watch, doubling the delay after each failure in a row, up to {@code watchMaxRetryDelay}.
+   */
+  private void retryWatch(String reason) {
+    long delay;
+    synchronized (this) {
+      delay = Math.min(watchRetryDelay << Math.min(watchFailures, 20), watchMaxRetryDelay);
+      watchFailures++;
+    }
+    LOGGER.error("Unable to watch the configmap or secret in namespace " + namespace + ": " + name + ", " + reason
+      + ", retrying in " + delay + " ms");
+    vertx.setTimer(delay, l -> startWatch());
+  }
+
+  private void onWatchEvent(JsonObject event) {
+    String type = event.getString("type");
+    Future<Buffer> content;
+    if ("ADDED".equals(type) || "MODIFIED".equals(type)) {
+      content = toBuffer(event.getJsonObject("object", new JsonObject()));
+    } else if ("DELETED".equals(type)) {
+      content = handle404(ConfigMapStore::emptyBuffer);
+    } else {
+      return;
+    }
+    content.onSuccess(buffer -> changeHandler.handle(buffer));
+  }
+
+  private static Buffer emptyBuffer() {
+    return Buffer.buffer("{}");
+  }
+
+  private <T> Future<T> handle404(Supplier<T> empty) {
     if (optional) {
-      return Future.succeededFuture(Buffer.buffer("{}"));
+      return Future.succeededFuture(empty.get());
     }
     return Future.failedFuture("Cannot find the config map '" + name + "' in '" + namespace + "'");
   }
 
-  private Future<Buffer> handle403() {
+  private <T> Future<T> handle403() {
     return Future.failedFuture("Access denied to configmap or secret in namespace " + namespace + ": " + name);
   }
 
-  private Future<Buffer> handleOtherErrors(HttpResponse<Buffer> response) {
+  private <T> Future<T> handleOtherErrors(HttpResponse<Buffer> response, Supplier<T> empty) {
     if (optional) {
-      return Future.succeededFuture(Buffer.buffer("{}"));
+      return Future.succeededFuture(empty.get());
     }
     return Future.failedFuture("Cannot retrieve the configmap or secret in namespace "
       + namespace + ": " + name + ", status code: " + response.statusCode() + ", error: "
       + response.bodyAsString());
   }
 
-  private Future<Buffer> handle200(HttpResponse<Buffer> response) {
-    JsonObject data = response.bodyAsJsonObject().getJsonObject("data");
+  private Future<JsonObject> toJson(JsonObject object) {
+    JsonObject data = object.getJsonObject("data");
     if (data == null) {
-      return Future.failedFuture("Invalid secret of configmap in namespace " + namespace + " " + name
-        + ", the data " + "entry is empty");
+      return invalidData();
+    }
+    if (secret) {
+      return Future.succeededFuture(new JsonObject(asSecretObjectMap(data.getMap())));
     }
+    return Future.succeededFuture(new JsonObject(asObjectMap(data.getMap())));
+  }
+
+  private <T> Future<T> invalidData() {
+    return Future.failedFuture("Invalid secret of configmap in namespace " + namespace + " " + name
+      + ", the data " + "entry is empty");
+  }
+
+  private Future<Buffer> toBuffer(JsonObject object) {
     if (this.key == null) {
-      if (secret) {
-        return Future.succeededFuture(new JsonObject(asSecretObjectMap(data.getMap())).toBuffer());
-      }
-      return Future.succeededFuture(new JsonObject(asObjectMap(data.getMap())).toBuffer());
+      return toJson(object).map(JsonObject::toBuffer);
+    }
+    JsonObject data = object.getJsonObject("data");
+    if (data == null) {
+      return invalidData();
     }
     String string = data.getString(this.key);
     if (string == null) {
@@ -23,8 +23,10 @@ module io.vertx.config.configmap {
   requires static io.vertx.docgen;
 
   requires io.vertx.core;
+  requires io.vertx.core.logging;
   requires io.vertx.config;
   requires io.vertx.web.client;
+  requires io.vertx.web.common;
 
   exports io.vertx.config.kubernetes;
 
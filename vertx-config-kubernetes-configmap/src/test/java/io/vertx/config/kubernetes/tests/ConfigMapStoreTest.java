@@ -294,5 +294,22 @@ public class ConfigMapStoreTest {
     });
   }
 
+  @Test
+  public void testFailedWatchesAreRetriedWithBackoff(TestContext tc) {
+    Async async = tc.async();
+    // The watch requests of an unknown namespace are answered with a 404
+    store = new ConfigMapStore(vertx, config()
+      .put("namespace", "unknown").put("name", "my-config-map")
+      .put("watch", true).put("watchRetryDelay", 50).put("watchMaxRetryDelay", 400));
+    int before = server.getRequestCount();
+
+    tc.assertTrue(store.watch(buffer -> tc.fail("Unexpected change")));
+    vertx.setTimer(1000, l -> {
+      // Restarted after 50, 100, 200 and 400 ms, instead of every 50 ms
+      int watches = server.getRequestCount() - before;
+      tc.assertTrue(watches >= 3 && watches <= 6, "Unexpected number of watches: " + watches);
+      async.complete();
+    });
+  }
 
 }
@@ -47,13 +47,18 @@ public class RedisConfigStore implements ConfigStore {
 
   @Override
   public Future<Buffer> get() {
+    return getJson().map(JsonObject::toBuffer);
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
     return redis.send(Request.cmd(Command.HGETALL).arg(field))
       .map(resp -> {
         JsonObject result = new JsonObject();
         for (String key : resp.getKeys()) {
           result.put(key, resp.get(key).toString());
         }
-        return result.toBuffer();
+        return result;
       });
   }
 }
@@ -19,6 +19,7 @@ package io.vertx.config.zookeeper;
 
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -27,10 +28,15 @@ import io.vertx.core.json.JsonObject;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
@@ -38,15 +44,29 @@ import java.util.Objects;
 public class ZookeeperConfigStore implements ConfigStore {
 
   private final CuratorFramework client;
+  private final String connection;
   private final String path;
   private final VertxInternal vertx;
+  private final long connectionTimeout;
+  private final long retryDelay;
+  private final boolean watch;
+  private final CuratorWatcher watcher = event -> {
+    if (event.getType() != Watcher.Event.EventType.None) {
+      notifyChange();
+    }
+  };
+  private volatile Handler<Buffer> changeHandler;
+  private volatile boolean closed;
 
   public ZookeeperConfigStore(Vertx vertx, JsonObject configuration) {
-    String connection = Objects.requireNonNull(configuration.getString("connection"));
+    connection = Objects.requireNonNull(configuration.getString("connection"));
     path = Objects.requireNonNull(configuration.getString("path"));
     this.vertx = (VertxInternal) Objects.requireNonNull(vertx);
     int maxRetries = configuration.getInteger("maxRetries", 3);
     int baseGraceBetweenRetries = configuration.getInteger("baseSleepTimeBetweenRetries", 1000);
+    connectionTimeout = configuration.getLong("connectionTimeout", 10_000L);
+    retryDelay = baseGraceBetweenRetries;
+    watch = configuration.getBoolean("watch", false);
 
     client = CuratorFrameworkFactory.newClient(connection,
         new ExponentialBackoffRetry(baseGraceBetweenRetries, maxRetries));
@@ -56,7 +76,9 @@ public class ZookeeperConfigStore implements ConfigStore {
   @Override
   public Future<Buffer> get() {
     return vertx.executeBlocking(() -> {
-      client.blockUntilConnected();
+      if (!client.blockUntilConnected((int) connectionTimeout, TimeUnit.MILLISECONDS)) {
+        throw new TimeoutException("Not connected to " + connection + " after " + connectionTimeout + " ms");
+      }
       return null;
     }).flatMap(v -> {
       // We are connected.
@@ -84,8 +106,50 @@ public class ZookeeperConfigStore implements ConfigStore {
     }
   }
 
+  @Override
+  public boolean watch(Handler<Buffer> handler) {
+    if (!watch) {
+      return false;
+    }
+    changeHandler = handler;
+    client.getConnectionStateListenable().addListener((c, state) -> {
+      // Watches are lost when the session expires, set again once connected
+      if (state == ConnectionState.CONNECTED || state == ConnectionState.RECONNECTED) {
+        notifyChange();
+      }
+    });
+    if (client.getZookeeperClient().isConnected()) {
+      notifyChange();
+    }
+    return true;
+  }
+
+  private void notifyChange() {
+    // ZooKeeper watches are one-shot, re-arm before reading. `exists` also reports the node creation.
+    arm();
+    get().onSuccess(buffer -> changeHandler.handle(buffer));
+  }
+
+  private void arm() {
+    if (closed) {
+      return;
+    }
+    try {
+      client.checkExists().usingWatcher(watcher).inBackground((c, event) -> {
+        KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+        if (code != KeeperException.Code.OK && code != KeeperException.Code.NONODE) {
+          // Not set, the changes would not be notified anymore
+          vertx.setTimer(retryDelay, l -> arm());
+        }
+      }).forPath(path);
+    } catch (Exception e) {
+      vertx.setTimer(retryDelay, l -> arm());
+    }
+  }
+
   @Override
   public Future<Void> close() {
+    closed = true;
     client.close();
     return vertx.getOrCreateContext().succeededFuture();
   }
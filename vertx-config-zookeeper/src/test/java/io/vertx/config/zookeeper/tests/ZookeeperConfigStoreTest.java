@@ -38,6 +38,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -148,6 +149,73 @@ public class ZookeeperConfigStoreTest {
     });
   }
 
+  @Test
+  public void testWatchedConfiguration(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx,
+        new ConfigRetrieverOptions().setScanPeriod(-1).addStore(
+            new ConfigStoreOptions()
+                .setType("zookeeper")
+                .setConfig(new JsonObject()
+                    .put("connection", server.getConnectString())
+                    .put("path", "/config/A")
+                    .put("watch", true))));
+
+    retriever.getConfig().onComplete(json -> {
+      assertThat(json.succeeded()).isTrue();
+      tc.assertTrue(json.result().isEmpty());
+
+      // No scan, the change is notified by the watch
+      retriever.listen(change -> {
+        tc.assertEquals(change.getNewConfiguration().getString("some-key"), "some-value");
+        async.complete();
+      });
+      writeSomeConf("/config/A", true, ar -> tc.assertTrue(ar.succeeded()));
+    });
+  }
+
+  @Test
+  public void testConnectionTimeout(TestContext tc) throws IOException {
+    server.stop();
+    retriever = ConfigRetriever.create(vertx,
+        new ConfigRetrieverOptions().addStore(
+            new ConfigStoreOptions()
+                .setType("zookeeper")
+                .setConfig(new JsonObject()
+                    .put("connection", server.getConnectString())
+                    .put("path", "/config/A")
+                    .put("connectionTimeout", 200))));
+
+    retriever.getConfig().onComplete(tc.asyncAssertFailure(cause ->
+        tc.assertTrue(cause instanceof TimeoutException)));
+  }
+
+  @Test
+  public void testWatchedConfigurationAfterAReconnection(TestContext tc) throws Exception {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx,
+        new ConfigRetrieverOptions().setScanPeriod(-1).addStore(
+            new ConfigStoreOptions()
+                .setType("zookeeper")
+                .setConfig(new JsonObject()
+                    .put("connection", server.getConnectString())
+                    .put("path", "/config/A")
+                    .put("watch", true))));
+
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        tc.assertEquals(change.getNewConfiguration().getString("some-key"), "some-value");
+        async.complete();
+      });
+      try {
+        server.restart();
+      } catch (Exception e) {
+        tc.fail(e);
+      }
+      writeSomeConf("/config/A", true, ar -> tc.assertTrue(ar.succeeded()));
+    }));
+  }
+
   private void delete(String path, Handler<AsyncResult<Void>> handler) {
     Context context = vertx.getOrCreateContext();
     try {
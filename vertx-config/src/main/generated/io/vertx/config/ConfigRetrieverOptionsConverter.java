@@ -17,11 +17,51 @@ public class ConfigRetrieverOptionsConverter {
             obj.setIncludeDefaultStores((Boolean)member.getValue());
           }
           break;
+        case "leaderAddress":
+          if (member.getValue() instanceof String) {
+            obj.setLeaderAddress((String)member.getValue());
+          }
+          break;
+        case "maxScanBackoff":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxScanBackoff(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "progressive":
+          if (member.getValue() instanceof Boolean) {
+            obj.setProgressive((Boolean)member.getValue());
+          }
+          break;
+        case "scanJitter":
+          if (member.getValue() instanceof Number) {
+            obj.setScanJitter(((Number)member.getValue()).doubleValue());
+          }
+          break;
         case "scanPeriod":
           if (member.getValue() instanceof Number) {
             obj.setScanPeriod(((Number)member.getValue()).longValue());
           }
           break;
+        case "scanPeriodAfterChange":
+          if (member.getValue() instanceof Number) {
+            obj.setScanPeriodAfterChange(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "shared":
+          if (member.getValue() instanceof Boolean) {
+            obj.setShared((Boolean)member.getValue());
+          }
+          break;
+        case "snapshotPath":
+          if (member.getValue() instanceof String) {
+            obj.setSnapshotPath((String)member.getValue());
+          }
+          break;
+        case "snapshotSecret":
+          if (member.getValue() instanceof String) {
+            obj.setSnapshotSecret((String)member.getValue());
+          }
+          break;
         case "stores":
           if (member.getValue() instanceof JsonArray) {
             java.util.ArrayList<io.vertx.config.ConfigStoreOptions> list =  new java.util.ArrayList<>();
@@ -42,7 +82,21 @@ public class ConfigRetrieverOptionsConverter {
 
    static void toJson(ConfigRetrieverOptions obj, java.util.Map<String, Object> json) {
     json.put("includeDefaultStores", obj.isIncludeDefaultStores());
+    if (obj.getLeaderAddress() != null) {
+      json.put("leaderAddress", obj.getLeaderAddress());
+    }
+    json.put("maxScanBackoff", obj.getMaxScanBackoff());
+    json.put("progressive", obj.isProgressive());
+    json.put("scanJitter", obj.getScanJitter());
     json.put("scanPeriod", obj.getScanPeriod());
+    json.put("scanPeriodAfterChange", obj.getScanPeriodAfterChange());
+    json.put("shared", obj.isShared());
+    if (obj.getSnapshotPath() != null) {
+      json.put("snapshotPath", obj.getSnapshotPath());
+    }
+    if (obj.getSnapshotSecret() != null) {
+      json.put("snapshotSecret", obj.getSnapshotSecret());
+    }
     if (obj.getStores() != null) {
       JsonArray array = new JsonArray();
       obj.getStores().forEach(item -> array.add(item.toJson()));
@@ -19,9 +19,12 @@ package examples;
 
 import io.vertx.config.ConfigRetriever;
 import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigSnapshotCodec;
 import io.vertx.config.ConfigStoreOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
@@ -66,6 +69,33 @@ public class ConfigExamples {
     ConfigRetriever retriever = ConfigRetriever.create(vertx, options);
   }
 
+  public void lastGood(Vertx vertx) {
+    ConfigStoreOptions httpStore = new ConfigStoreOptions()
+      .setType("http")
+      .setName("config-server")
+      .setOptional(true)
+      // Keep the last configuration for up to 10 minutes
+      .setMaxStaleness(600_000L)
+      .setConfig(new JsonObject()
+        .put("host", "localhost").put("port", 8080).put("path", "/conf"));
+
+    ConfigRetriever retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions().addStore(httpStore));
+    retriever.listen(change -> {
+      if (change.getStaleStores().contains("config-server")) {
+        // The configuration server is not reachable, its last configuration is used
+      }
+    });
+  }
+
+  public void slowStore() {
+    ConfigStoreOptions consul = new ConfigStoreOptions()
+      .setType("consul")
+      .setTimeout(2000L)
+      .setHedgePercentile(95.0)
+      .setStaleWhileRevalidate(true)
+      .setConfig(new JsonObject().put("prefix", "foo"));
+  }
+
   public void example3(ConfigRetriever retriever) {
     retriever.getConfig().onComplete(ar -> {
       if (ar.failed()) {
@@ -76,6 +106,76 @@ public class ConfigExamples {
     });
   }
 
+  public void snapshotFile(Vertx vertx) {
+    ConfigStoreOptions consul = new ConfigStoreOptions()
+      .setType("consul")
+      .setConfig(new JsonObject().put("prefix", "foo"));
+
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions()
+      .setSnapshotPath("/var/cache/my-app/config.snapshot")
+      .setSnapshotSecret("a-secret")
+      .addStore(consul);
+
+    ConfigRetriever retriever = ConfigRetriever.create(vertx, options);
+    retriever.getConfig().onComplete(ar -> {
+      // The local copy, if any, the configuration from the stores otherwise
+    });
+    retriever.listen(change -> {
+      // The configuration from the stores, when it differs from the local copy
+    });
+  }
+
+  public void progressive(Vertx vertx) {
+    ConfigStoreOptions fileStore = new ConfigStoreOptions()
+      .setType("file")
+      .setConfig(new JsonObject().put("path", "my-config.json"));
+    ConfigStoreOptions httpStore = new ConfigStoreOptions()
+      .setType("http")
+      .setConfig(new JsonObject()
+        .put("host", "localhost").put("port", 8080).put("path", "/conf"));
+
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions()
+      .setProgressive(true)
+      .addStore(fileStore)
+      .addStore(httpStore);
+
+    ConfigRetriever retriever = ConfigRetriever.create(vertx, options);
+    retriever.getConfig().onComplete(ar -> {
+      // The configuration of the file, enough to start the HTTP server
+    });
+    retriever.getCompleteConfig().onComplete(ar -> {
+      // The configuration of both stores
+    });
+  }
+
+  public void shared(Vertx vertx) {
+    ConfigStoreOptions consul = new ConfigStoreOptions()
+      .setType("consul")
+      .setConfig(new JsonObject().put("prefix", "foo"));
+
+    // In every verticle, the retriever and the Consul store are shared
+    ConfigRetriever retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setShared(true)
+      .addStore(consul));
+    retriever.listen(change -> {
+      // Called on the context of this verticle
+    });
+  }
+
+  public void leader(Vertx vertx) {
+    ConfigStoreOptions vault = new ConfigStoreOptions()
+      .setType("vault")
+      .setConfig(new JsonObject().put("host", "vault.example.com").put("path", "secret/my-app"));
+
+    // On every node, only the leader reads Vault
+    ConfigRetriever retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setLeaderAddress("my-app.config")
+      .addStore(vault));
+    retriever.listen(change -> {
+      // The configuration read by the leader
+    });
+  }
+
   public void future(ConfigRetriever retriever) {
     Future<JsonObject> future = retriever.getConfig();
     future.onComplete(ar -> {
@@ -158,6 +258,34 @@ public class ConfigExamples {
       );
   }
 
+  public void ebBinary(Vertx vertx) {
+    JsonObject config = new JsonObject().put("key", "value");
+
+    ConfigSnapshotCodec.register(vertx);
+    vertx.eventBus().publish("address-getting-the-conf", config, ConfigSnapshotCodec.deliveryOptions());
+    // Or, encoded once for several sends
+    Buffer encoded = ConfigSnapshotCodec.encode(config);
+    vertx.eventBus().publish("address-getting-the-conf", encoded);
+  }
+
+  public void ebPatch(Vertx vertx) {
+    JsonObject config = new JsonObject().put("feature", new JsonObject().put("enabled", false));
+    vertx.eventBus().publish("address-getting-the-conf", config,
+      new DeliveryOptions().addHeader("config-sequence", "1"));
+
+    // Later, only the change
+    vertx.eventBus().publish("address-getting-the-conf",
+      new JsonObject().put("feature", new JsonObject().put("enabled", true)),
+      new DeliveryOptions().addHeader("config-sequence", "2").addHeader("config-patch", "merge"));
+
+    // Send the whole configuration again when a store missed a patch
+    vertx.eventBus().<JsonObject>consumer("address-getting-the-conf.resync", message -> {
+      JsonObject current = new JsonObject().put("feature", new JsonObject().put("enabled", true));
+      vertx.eventBus().publish("address-getting-the-conf", current,
+        new DeliveryOptions().addHeader("config-sequence", "2"));
+    });
+  }
+
   public void dir() {
     ConfigStoreOptions dir = new ConfigStoreOptions()
       .setType("directory")
@@ -233,6 +361,37 @@ public class ConfigExamples {
     });
   }
 
+  public void listenPath(ConfigRetriever retriever) {
+    retriever.listen("/http/port", change -> {
+      // Previous value, null if it was not set
+      Object previous = change.getPreviousValue();
+      // New value, null if it has been removed
+      Object port = change.getNewValue();
+    });
+  }
+
+  public void storePeriod() {
+    ConfigStoreOptions git = new ConfigStoreOptions()
+      .setType("git")
+      .setScanPeriod(300_000L)
+      .setConfig(new JsonObject()
+        .put("url", "https://github.com/cescoffier/vertx-config-test.git")
+        .put("path", "local")
+        .put("filesets",
+          new JsonArray().add(new JsonObject().put("pattern", "*.json"))));
+
+    ConfigStoreOptions env = new ConfigStoreOptions()
+      .setType("env")
+      .setScanPeriod(0L);
+
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions()
+      .setScanPeriod(2000)
+      .addStore(git)
+      .addStore(env);
+
+    ConfigRetriever retriever = ConfigRetriever.create(Vertx.vertx(), options);
+  }
+
   public void stream(ConfigStoreOptions store1, ConfigStoreOptions store2) {
     ConfigRetrieverOptions options = new ConfigRetrieverOptions()
       .setScanPeriod(2000)
@@ -255,6 +414,8 @@ public class ConfigExamples {
 
   public void cache(ConfigRetriever retriever) {
     JsonObject last = retriever.getCachedConfig();
+    // Read-only, not copied on every call
+    JsonObject snapshot = retriever.getCachedConfigSnapshot();
   }
 
 }
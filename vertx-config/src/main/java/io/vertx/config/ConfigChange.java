@@ -18,9 +18,15 @@
 package io.vertx.config;
 
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.config.impl.ConfigDiff;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * A structure representing a configuration change.
@@ -34,6 +40,13 @@ public class ConfigChange {
 
   private JsonObject newConfiguration;
 
+  private List<String> staleStores = Collections.emptyList();
+
+  private boolean complete = true;
+
+  // Computed lazily, reset when one of the configurations is set
+  private volatile List<ConfigDiff.Entry> diff;
+
   /**
    * Creates a new {@link ConfigChange} instance.
    *
@@ -64,6 +77,7 @@ public class ConfigChange {
     } else {
       this.previousConfiguration = conf;
     }
+    diff = null;
     return this;
   }
 
@@ -86,9 +100,86 @@ public class ConfigChange {
     } else {
       this.newConfiguration = conf;
     }
+    diff = null;
+    return this;
+  }
+
+  /**
+   * @return the names of the stores that failed and whose last good configuration is part of the new configuration,
+   * never {@code null}, but potentially empty. See {@link ConfigStoreOptions#setMaxStaleness(Long)}.
+   */
+  public List<String> getStaleStores() {
+    return staleStores;
+  }
+
+  /**
+   * Sets the names of the stores whose last good configuration is used because they failed.
+   *
+   * @param staleStores the names of the stores, may be {@code null}. In this case, an empty list is used.
+   * @return the current instance of {@link ConfigChange}
+   */
+  public ConfigChange setStaleStores(List<String> staleStores) {
+    if (staleStores == null) {
+      this.staleStores = Collections.emptyList();
+    } else {
+      this.staleStores = Collections.unmodifiableList(new ArrayList<>(staleStores));
+    }
+    return this;
+  }
+
+  /**
+   * @return whether the new configuration has been computed from all the stores. A progressive retriever emits
+   * incomplete configurations while the deferred stores are read. See
+   * {@link ConfigRetrieverOptions#setProgressive(boolean)}.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Sets whether the new configuration has been computed from all the stores.
+   *
+   * @param complete whether the configuration is complete
+   * @return the current instance of {@link ConfigChange}
+   */
+  public ConfigChange setComplete(boolean complete) {
+    this.complete = complete;
     return this;
   }
 
+  /**
+   * Gets the values that differ between the previous and new configurations. Objects are compared member by member,
+   * so a change is reported for each added, removed or modified member, while any other value, including arrays, is
+   * compared as a whole. The differences are computed on the first call and shared by the following ones.
+   *
+   * @return the list of changes, never {@code null}, but potentially empty. A change has no previous value when the
+   * value has been added, and no new value when it has been removed.
+   */
+  public List<ConfigValueChange> getChanges() {
+    return Collections.unmodifiableList(diff().stream()
+      .map(entry -> new ConfigValueChange(entry.path(), entry.previousValue(), entry.newValue()))
+      .collect(Collectors.toList()));
+  }
+
+  /**
+   * Gets the differences between the previous and new configurations as a JSON Patch (RFC 6902) document.
+   * Applying it to the previous configuration gives the new one.
+   *
+   * @return the JSON Patch document, an empty array if both configurations are equal
+   */
+  public JsonArray toPatch() {
+    return ConfigDiff.toPatch(diff());
+  }
+
+  private List<ConfigDiff.Entry> diff() {
+    List<ConfigDiff.Entry> entries = diff;
+    if (entries == null) {
+      entries = ConfigDiff.diff(previousConfiguration, newConfiguration);
+      diff = entries;
+    }
+    return entries;
+  }
+
   /**
    * Creates a new instance from {@link ConfigChange} using empty JSON Object for both the old and new configuration.
    */
@@ -105,6 +196,8 @@ public class ConfigChange {
   public ConfigChange(ConfigChange other) {
     this.previousConfiguration = other.previousConfiguration.copy();
     this.newConfiguration = other.newConfiguration.copy();
+    this.staleStores = other.staleStores;
+    this.complete = other.complete;
   }
 
   /**
@@ -116,6 +209,11 @@ public class ConfigChange {
     Objects.requireNonNull(json);
     this.setNewConfiguration(json.getJsonObject("newConfiguration", new JsonObject()));
     this.setPreviousConfiguration(json.getJsonObject("previousConfiguration", new JsonObject()));
+    this.complete = json.getBoolean("complete", true);
+    JsonArray stale = json.getJsonArray("staleStores");
+    if (stale != null) {
+      this.setStaleStores(stale.stream().map(String.class::cast).collect(Collectors.toList()));
+    }
   }
 
   /**
@@ -125,6 +223,10 @@ public class ConfigChange {
     JsonObject json = new JsonObject();
     json.put("newConfiguration", newConfiguration);
     json.put("previousConfiguration", previousConfiguration);
+    json.put("complete", complete);
+    if (!staleStores.isEmpty()) {
+      json.put("staleStores", new JsonArray(new ArrayList<>(staleStores)));
+    }
     return json;
   }
 }
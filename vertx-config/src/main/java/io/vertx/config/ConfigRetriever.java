@@ -21,6 +21,7 @@ import io.vertx.codegen.annotations.CacheReturn;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.impl.SharedConfigRetriever;
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -48,6 +49,9 @@ public interface ConfigRetriever {
    * @return the created instance.
    */
   static ConfigRetriever create(Vertx vertx, ConfigRetrieverOptions options) {
+    if (options.isShared()) {
+      return SharedConfigRetriever.create(vertx, options);
+    }
     ConfigRetrieverImpl retriever = new ConfigRetrieverImpl(vertx, options);
     retriever.initializePeriodicScan();
     return retriever;
@@ -73,6 +77,17 @@ public interface ConfigRetriever {
    */
   Future<JsonObject> getConfig();
 
+  /**
+   * Gets the configuration computed from all the stores. Unlike {@link #getConfig()}, the returned future is not
+   * completed with a partial configuration, when the retriever is progressive, nor with the local snapshot of the
+   * configuration. It does not trigger a retrieval: it is completed by the first retrieval or scan computing the
+   * configuration from all the stores.
+   *
+   * @return a future notified with the first complete configuration
+   * @see ConfigRetrieverOptions#setProgressive(boolean)
+   */
+  Future<JsonObject> getCompleteConfig();
+
   /**
    * Closes the retriever.
    */
@@ -85,6 +100,16 @@ public interface ConfigRetriever {
    */
   JsonObject getCachedConfig();
 
+  /**
+   * Gets the last computed configuration as a read-only object. Unlike {@link #getCachedConfig()}, the configuration
+   * is not copied on every call: the same instance is returned until the configuration changes, and can be shared
+   * between threads. Any attempt to modify it, or the objects and arrays it contains, throws an
+   * {@link UnsupportedOperationException}. Use {@link JsonObject#copy()} to get a modifiable copy.
+   *
+   * @return the last configuration, read-only
+   */
+  JsonObject getCachedConfigSnapshot();
+
   /**
    * Registers a listener receiving configuration changes. This method cannot only be called if
    * the configuration is broadcasted.
@@ -93,6 +118,17 @@ public interface ConfigRetriever {
    */
   void listen(Handler<ConfigChange> listener);
 
+  /**
+   * Registers a listener receiving the changes of a part of the configuration. The listener is only called when the
+   * value designated by the given JSON pointer changes, and receives the previous and new values.
+   *
+   * @param path     the JSON pointer (RFC 6901) of the value, such as {@code /http/port}, the empty string designates
+   *                 the whole configuration
+   * @param listener the listener
+   * @throws IllegalArgumentException if the path is not a valid JSON pointer
+   */
+  void listen(String path, Handler<ConfigValueChange> listener);
+
   /**
    * Registers a handler called before every scan. This method is mostly used for logging purpose.
    * @param handler the handler, must not be {@code null}
@@ -44,6 +44,22 @@ public class ConfigRetrieverOptions {
 
   private boolean includeDefaultStores = false;
 
+  private double scanJitter = 0;
+
+  private long maxScanBackoff = 0;
+
+  private long scanPeriodAfterChange = 0;
+
+  private boolean progressive = false;
+
+  private boolean shared = false;
+
+  private String leaderAddress;
+
+  private String snapshotPath;
+
+  private String snapshotSecret;
+
   public ConfigRetrieverOptions() {
     // Empty constructor
   }
@@ -51,6 +67,14 @@ public class ConfigRetrieverOptions {
   public ConfigRetrieverOptions(ConfigRetrieverOptions other) {
     this.scanPeriod = other.scanPeriod;
     this.stores = other.stores;
+    this.scanJitter = other.scanJitter;
+    this.maxScanBackoff = other.maxScanBackoff;
+    this.scanPeriodAfterChange = other.scanPeriodAfterChange;
+    this.progressive = other.progressive;
+    this.shared = other.shared;
+    this.leaderAddress = other.leaderAddress;
+    this.snapshotPath = other.snapshotPath;
+    this.snapshotSecret = other.snapshotSecret;
   }
 
   public ConfigRetrieverOptions(JsonObject json) {
@@ -99,6 +123,184 @@ public class ConfigRetrieverOptions {
     return this;
   }
 
+  /**
+   * @return the fraction of the scan period by which the delay between two scans varies randomly.
+   */
+  public double getScanJitter() {
+    return scanJitter;
+  }
+
+  /**
+   * Configures the random variation of the delay between two scans, as a fraction of the scan period. For instance,
+   * with a scan period of 5000 ms and a jitter of {@code 0.1}, the delay between two scans, as well as the delay
+   * before the first scan, is picked between 4500 ms and 5500 ms. This spreads the load of many retrievers started at
+   * the same time on the configuration backends. {@code 0} (default) disables the jitter.
+   *
+   * @param scanJitter the jitter, between {@code 0} and {@code 1}
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setScanJitter(double scanJitter) {
+    if (scanJitter < 0 || scanJitter > 1) {
+      throw new IllegalArgumentException("The scan jitter must be between 0 and 1");
+    }
+    this.scanJitter = scanJitter;
+    return this;
+  }
+
+  /**
+   * @return the maximum delay in ms between two reads of a failing store, {@code 0} if the backoff is disabled.
+   */
+  public long getMaxScanBackoff() {
+    return maxScanBackoff;
+  }
+
+  /**
+   * Enables the backoff of failing stores. When a store fails, the delay before reading it again during the scans is
+   * doubled for each consecutive failure, starting from its scan period, up to the given maximum. The delay is reset
+   * once the store is read successfully. In the meantime, its last successful result is used. {@code 0} (default)
+   * disables the backoff.
+   *
+   * @param maxScanBackoff the maximum delay in ms
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setMaxScanBackoff(long maxScanBackoff) {
+    this.maxScanBackoff = maxScanBackoff;
+    return this;
+  }
+
+  /**
+   * @return the scan period in ms used after a change, {@code 0} if disabled.
+   */
+  public long getScanPeriodAfterChange() {
+    return scanPeriodAfterChange;
+  }
+
+  /**
+   * Configures the scan period used after a change has been detected, in ms. When a scan detects a change, the same
+   * stores are scanned with this period until a scan completes without change, so that follow-up changes, frequent
+   * during a rollout, are picked up quickly. It only applies when lower than the scan period of the stores.
+   * {@code 0} (default) disables it.
+   *
+   * @param scanPeriodAfterChange the scan period in ms
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setScanPeriodAfterChange(long scanPeriodAfterChange) {
+    this.scanPeriodAfterChange = scanPeriodAfterChange;
+    return this;
+  }
+
+  /**
+   * @return whether the first retrieval publishes partial configurations while the deferred stores are read.
+   */
+  public boolean isProgressive() {
+    return progressive;
+  }
+
+  /**
+   * Enables the progressive retrieval of the configuration. The first retrieval of the configuration completes as
+   * soon as the stores which are not {@link ConfigStoreOptions#setDeferred(Boolean) deferred} are read, such as the
+   * local stores, without waiting for the others. The configuration is then refined each time a deferred store is
+   * read, emitting a change flagged as not {@link ConfigChange#isComplete() complete}, until all the stores are read.
+   * Use {@link ConfigRetriever#getCompleteConfig()} to wait for the configuration of all the stores. {@code false}
+   * (default) waits for all the stores.
+   *
+   * @param progressive whether the retrieval is progressive
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setProgressive(boolean progressive) {
+    this.progressive = progressive;
+    return this;
+  }
+
+  /**
+   * @return whether the retriever is shared with the other retrievers of the Vert.x instance.
+   */
+  public boolean isShared() {
+    return shared;
+  }
+
+  /**
+   * Enables the sharing of the retriever. The shared retrievers of a Vert.x instance created with the same options
+   * rely on a single retriever: the stores are read and scanned once, and the outcome is dispatched to each of them
+   * on its own context. The shared retrievers created with different options share the stores of the same type and
+   * configuration, including their clients, and their reads in progress. A retriever and a store are closed once
+   * all the shared retrievers relying on them are closed. The processor and the handler called before the scans
+   * cannot be set on a shared retriever. {@code false} (default) creates an independent retriever.
+   *
+   * @param shared whether the retriever is shared
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setShared(boolean shared) {
+    this.shared = shared;
+    return this;
+  }
+
+  /**
+   * @return the event bus address used to distribute the configuration read by the leader, {@code null} if each
+   * retriever reads its stores.
+   */
+  public String getLeaderAddress() {
+    return leaderAddress;
+  }
+
+  /**
+   * Enables the leader mode. The retrievers configured with the same address, generally on the different nodes of a
+   * cluster, elect a leader using a lock of the shared data. Only the leader reads and scans the stores: it publishes
+   * each new configuration, with a version number, on the given address of the event bus. The other retrievers apply
+   * the configurations they receive, and get the current one from the leader when the configuration is retrieved.
+   * When the leader is closed, or its node leaves the cluster, another retriever takes over. So the stores are read
+   * once per cluster instead of once per node. {@code null} (default) disables the leader mode.
+   *
+   * @param leaderAddress the address
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setLeaderAddress(String leaderAddress) {
+    this.leaderAddress = leaderAddress;
+    return this;
+  }
+
+  /**
+   * @return the path of the local snapshot of the configuration, {@code null} if disabled.
+   */
+  public String getSnapshotPath() {
+    return snapshotPath;
+  }
+
+  /**
+   * Configures the path of a local snapshot of the configuration. The last computed configuration is written to this
+   * file, replacing it atomically. On the first retrieval of the configuration, the snapshot, if any, is returned
+   * immediately, without waiting for the stores, which are then read in the background: a change is emitted if their
+   * configuration differs from the snapshot. This makes the startup fast and independent of the availability of the
+   * remote stores. {@code null} (default) disables the snapshot.
+   *
+   * @param snapshotPath the path of the snapshot
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setSnapshotPath(String snapshotPath) {
+    this.snapshotPath = snapshotPath;
+    return this;
+  }
+
+  /**
+   * @return the secret used to encrypt the local snapshot of the configuration, {@code null} if not encrypted.
+   */
+  public String getSnapshotSecret() {
+    return snapshotSecret;
+  }
+
+  /**
+   * Configures the secret used to encrypt the local snapshot of the configuration (AES-GCM, with a key derived from
+   * the secret). A snapshot that cannot be decrypted with the secret is ignored. {@code null} (default) stores the
+   * snapshot as plain JSON.
+   *
+   * @param snapshotSecret the secret
+   * @return the current {@link ConfigRetrieverOptions}
+   */
+  public ConfigRetrieverOptions setSnapshotSecret(String snapshotSecret) {
+    this.snapshotSecret = snapshotSecret;
+    return this;
+  }
+
   /**
    * @return the current list of stores.
    */
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config;
+
+import io.vertx.config.impl.BinaryJson;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * An event bus codec sending configurations in a compact binary format: the keys and the string values are
+ * deduplicated, the numbers are variable-length, and the large configurations are compressed. This makes the
+ * configurations broadcast to the nodes of a cluster several times smaller and faster to decode than textual JSON.
+ * <p>
+ * The codec must be registered on each node, see {@link #register(Vertx)}, and selected when sending the
+ * configuration with {@link #deliveryOptions()}. The {@code event-bus} configuration store registers it, and also
+ * accepts the configurations encoded with {@link #encode(JsonObject)} in a {@link Buffer}.
+ */
+public class ConfigSnapshotCodec implements MessageCodec<JsonObject, JsonObject> {
+
+  /**
+   * The name of the codec.
+   */
+  public static final String NAME = "vertx-config-snapshot";
+
+  /**
+   * Registers the codec on the event bus of the given Vert.x instance, unless already registered.
+   *
+   * @param vertx the Vert.x instance
+   */
+  public static void register(Vertx vertx) {
+    try {
+      vertx.eventBus().registerCodec(new ConfigSnapshotCodec());
+    } catch (IllegalStateException e) {
+      // Already registered
+    }
+  }
+
+  /**
+   * @return the delivery options selecting this codec
+   */
+  public static DeliveryOptions deliveryOptions() {
+    return new DeliveryOptions().setCodecName(NAME);
+  }
+
+  /**
+   * Encodes the given configuration in the binary format of the codec.
+   *
+   * @param json the configuration
+   * @return the encoded configuration
+   */
+  public static Buffer encode(JsonObject json) {
+    return BinaryJson.encode(json);
+  }
+
+  /**
+   * Decodes a configuration encoded with {@link #encode(JsonObject)}.
+   *
+   * @param buffer the encoded configuration
+   * @return the configuration
+   * @throws DecodeException if the buffer is not a valid encoding
+   */
+  public static JsonObject decode(Buffer buffer) {
+    return BinaryJson.decode(buffer);
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, JsonObject json) {
+    Buffer encoded = BinaryJson.encode(json);
+    buffer.appendInt(encoded.length()).appendBuffer(encoded);
+  }
+
+  @Override
+  public JsonObject decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    if (length < 0 || length > buffer.length() - pos - 4) {
+      throw new DecodeException("Invalid length " + length);
+    }
+    return BinaryJson.decode(buffer.slice(pos + 4, pos + 4 + length));
+  }
+
+  @Override
+  public JsonObject transform(JsonObject json) {
+    // Not encoded locally, the receivers get their own copy as with the default codec
+    return json.copy();
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -37,6 +37,13 @@ public class ConfigStoreOptions {
   private JsonObject config;
   private String format;
   private boolean optional;
+  private Long scanPeriod;
+  private String name;
+  private Long maxStaleness;
+  private Boolean deferred;
+  private Long timeout;
+  private Double hedgePercentile;
+  private boolean staleWhileRevalidate;
 
   public ConfigStoreOptions() {
     // Empty constructor
@@ -47,6 +54,13 @@ public class ConfigStoreOptions {
     this.config = other.config == null ? null : other.config.copy();
     this.format = other.format;
     this.optional = other.optional;
+    this.scanPeriod = other.scanPeriod;
+    this.name = other.name;
+    this.maxStaleness = other.maxStaleness;
+    this.deferred = other.deferred;
+    this.timeout = other.timeout;
+    this.hedgePercentile = other.hedgePercentile;
+    this.staleWhileRevalidate = other.staleWhileRevalidate;
   }
 
   public ConfigStoreOptions(JsonObject json) {
@@ -54,6 +68,13 @@ public class ConfigStoreOptions {
     config = json.getJsonObject("config");
     optional = json.getBoolean("optional", false);
     format = json.getString("format", "json");
+    scanPeriod = json.getLong("scanPeriod");
+    name = json.getString("name");
+    maxStaleness = json.getLong("maxStaleness");
+    deferred = json.getBoolean("deferred");
+    timeout = json.getLong("timeout");
+    setHedgePercentile(json.getDouble("hedgePercentile"));
+    staleWhileRevalidate = json.getBoolean("staleWhileRevalidate", false);
   }
 
 
@@ -69,6 +90,27 @@ public class ConfigStoreOptions {
       json.put("format", format);
     }
     json.put("optional", optional);
+    if (scanPeriod != null) {
+      json.put("scanPeriod", scanPeriod);
+    }
+    if (name != null) {
+      json.put("name", name);
+    }
+    if (maxStaleness != null) {
+      json.put("maxStaleness", maxStaleness);
+    }
+    if (deferred != null) {
+      json.put("deferred", deferred);
+    }
+    if (timeout != null) {
+      json.put("timeout", timeout);
+    }
+    if (hedgePercentile != null) {
+      json.put("hedgePercentile", hedgePercentile);
+    }
+    if (staleWhileRevalidate) {
+      json.put("staleWhileRevalidate", true);
+    }
     return json;
   }
 
@@ -137,6 +179,158 @@ public class ConfigStoreOptions {
     return this;
   }
 
+  /**
+   * @return the scan period of this store in ms, {@code null} if the store uses the scan period of the retriever.
+   */
+  public Long getScanPeriod() {
+    return scanPeriod;
+  }
+
+  /**
+   * Sets the scan period of this store, in ms. It overrides the scan period configured on the retriever, so cheap
+   * stores can be checked more often than expensive ones. A period lower or equal to 0 disables the periodic scan of
+   * the store: it is only read when the configuration is explicitly retrieved, which is useful for immutable
+   * sources.
+   *
+   * @param scanPeriod the scan period in ms, {@code null} to use the scan period of the retriever
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setScanPeriod(Long scanPeriod) {
+    this.scanPeriod = scanPeriod;
+    return this;
+  }
+
+  /**
+   * @return the name of the store, {@code null} if the store is named after its type.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Sets the name of the store. It identifies the store in the {@link ConfigChange#getStaleStores() stale stores}
+   * reported to the listeners, and defaults to the type of the store.
+   *
+   * @param name the name, {@code null} to use the type of the store
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setName(String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * @return the maximum staleness in ms of the configuration kept when the store fails, {@code null} if the last
+   * successful configuration is not kept.
+   */
+  public Long getMaxStaleness() {
+    return maxStaleness;
+  }
+
+  /**
+   * Sets the maximum staleness of the configuration of the store, in ms. When set, and the store fails, the last
+   * configuration successfully retrieved from the store is used instead of failing, or of an empty json object for
+   * optional stores, as long as it has been retrieved for less than the given duration. The store is then reported
+   * as stale to the listeners. This avoids a change when the store is briefly unavailable, and another one when it is
+   * back.
+   *
+   * @param maxStaleness the maximum staleness in ms, {@code null} to not keep the last successful configuration
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setMaxStaleness(Long maxStaleness) {
+    this.maxStaleness = maxStaleness;
+    return this;
+  }
+
+  /**
+   * @return whether the progressive retrievals do not wait for the store, {@code null} if it depends on the type of
+   * the store.
+   */
+  public Boolean getDeferred() {
+    return deferred;
+  }
+
+  /**
+   * Sets whether the store is deferred. When the retriever is
+   * {@link ConfigRetrieverOptions#setProgressive(boolean) progressive}, the first retrieval of the configuration
+   * does not wait for the deferred stores: their configuration is added once read. By default, the {@code json},
+   * {@code sys}, {@code env}, {@code file} and {@code directory} stores are not deferred, while the other stores,
+   * generally remote, are.
+   *
+   * @param deferred whether the store is deferred, {@code null} to depend on the type of the store
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setDeferred(Boolean deferred) {
+    this.deferred = deferred;
+    return this;
+  }
+
+  /**
+   * @return the maximum duration in ms of a read of the store, {@code null} if not bounded.
+   */
+  public Long getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Sets the maximum duration of a read of the store, in ms. A read taking longer fails, and is handled like any
+   * other failure of the store, so a store that does not respond cannot block the retrieval of the configuration.
+   *
+   * @param timeout the timeout in ms, {@code null} or a value lower or equal to 0 to not bound the reads
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setTimeout(Long timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * @return the percentile of the latencies of the store after which a read is hedged, {@code null} if disabled.
+   */
+  public Double getHedgePercentile() {
+    return hedgePercentile;
+  }
+
+  /**
+   * Enables the hedging of the reads of the store. When a read takes longer than the given percentile of the recent
+   * latencies of the store, for instance {@code 95}, a second read is issued and the first one to succeed is used.
+   * This cuts the tail latency of stores with sporadic slow responses, at the cost of concurrent reads. Reads are
+   * only hedged once enough latencies have been recorded, and not before 10 ms.
+   *
+   * @param hedgePercentile the percentile, greater than 0 and lower or equal to 100, {@code null} to disable the
+   *                        hedging
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setHedgePercentile(Double hedgePercentile) {
+    if (hedgePercentile != null && (hedgePercentile <= 0 || hedgePercentile > 100)) {
+      throw new IllegalArgumentException("The hedge percentile must be greater than 0 and lower or equal to 100");
+    }
+    this.hedgePercentile = hedgePercentile;
+    return this;
+  }
+
+  /**
+   * @return whether the scans use the last configuration of the store while it is read again.
+   */
+  public boolean isStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+
+  /**
+   * Sets whether the scans use the last configuration of the store while it is read again. When enabled, once the
+   * configuration of the store has been retrieved, the computations of the configuration do not wait for the store:
+   * they use its last configuration, and the store is read in the background. A change is emitted when the read
+   * configuration differs. This bounds the duration of the scans whatever the latency of the store. The default
+   * value is false.
+   *
+   * @param staleWhileRevalidate whether the last configuration is used while the store is read
+   * @return the current instance of {@link ConfigStoreOptions}
+   */
+  public ConfigStoreOptions setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+    this.staleWhileRevalidate = staleWhileRevalidate;
+    return this;
+  }
+
   /**
    * Sets the format of the configuration that is retrieved from the store.
    *
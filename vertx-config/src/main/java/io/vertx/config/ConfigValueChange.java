@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Objects;
+
+/**
+ * A structure representing the change of a value of the configuration, designated by a JSON pointer.
+ */
+@DataObject
+public class ConfigValueChange {
+
+  private final String path;
+
+  private final Object previousValue;
+
+  private final Object newValue;
+
+  /**
+   * Creates a new {@link ConfigValueChange} instance.
+   *
+   * @param path      the JSON pointer of the value, must not be {@code null}
+   * @param prevValue the previous value, {@code null} if the value was not set
+   * @param newValue  the new value, {@code null} if the value has been removed
+   */
+  public ConfigValueChange(String path, Object prevValue, Object newValue) {
+    this.path = Objects.requireNonNull(path);
+    this.previousValue = prevValue;
+    this.newValue = newValue;
+  }
+
+  /**
+   * Creates a new {@link ConfigValueChange} instance from the given JSON object.
+   *
+   * @param json the json object, must not be {@code null}
+   */
+  public ConfigValueChange(JsonObject json) {
+    this(json.getString("path", ""), json.getValue("previousValue"), json.getValue("newValue"));
+  }
+
+  /**
+   * @return the JSON pointer of the value, the empty string designating the whole configuration
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @return the previous value, {@code null} if the value was not set
+   */
+  public Object getPreviousValue() {
+    return previousValue;
+  }
+
+  /**
+   * @return the new value, {@code null} if the value has been removed
+   */
+  public Object getNewValue() {
+    return newValue;
+  }
+
+  /**
+   * @return the JSON representation of the current {@link ConfigValueChange} instance.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("path", path);
+    json.put("previousValue", previousValue);
+    json.put("newValue", newValue);
+    return json;
+  }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A compact binary encoding of the JSON configurations exchanged on the event bus.
+ * <p>
+ * The encoding starts with a magic number, a version and flags. The keys and the string values are written once in a
+ * table, and referenced by their index, so the keys repeated in the arrays of objects cost a few bytes. The lengths,
+ * sizes, indexes and integers are variable-length integers. Large configurations are compressed (deflate) when it
+ * makes them smaller, in which case the flags say so and the uncompressed length follows.
+ */
+public final class BinaryJson {
+
+  private static final byte[] MAGIC = {'V', 'X', 'C', 'B'};
+  private static final byte VERSION = 1;
+  private static final int HEADER_LENGTH = MAGIC.length + 2;
+  private static final byte COMPRESSED = 1;
+  // Smaller configurations are not worth compressing
+  private static final int COMPRESSION_THRESHOLD = 1024;
+  // The maximum ratio of deflate, an announced uncompressed length above it is invalid
+  private static final int MAX_COMPRESSION_RATIO = 1032;
+  // The maximum nesting of the objects and arrays, bounding the recursion of the decoding
+  private static final int MAX_DEPTH = 1000;
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte INTEGER = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte STRING = 5;
+  private static final byte OBJECT = 6;
+  private static final byte ARRAY = 7;
+  private static final byte BINARY = 8;
+  private static final byte DECIMAL = 9;
+
+  private BinaryJson() {
+    // Avoid direct instantiation
+  }
+
+  /**
+   * @return whether the given buffer is a configuration encoded by {@link #encode(JsonObject)}
+   */
+  public static boolean isBinary(Buffer buffer) {
+    if (buffer.length() < HEADER_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (buffer.getByte(i) != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Encodes the given configuration, compressing it if large.
+   */
+  public static Buffer encode(JsonObject json) {
+    Writer writer = new Writer();
+    writer.collect(json);
+    Buffer body = Buffer.buffer();
+    writer.writeVarLong(body, writer.strings.size());
+    for (String string : writer.strings) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writer.writeVarLong(body, bytes.length);
+      body.appendBytes(bytes);
+    }
+    writer.write(body, json);
+
+    Buffer buffer = Buffer.buffer(HEADER_LENGTH + body.length()).appendBytes(MAGIC).appendByte(VERSION);
+    if (body.length() >= COMPRESSION_THRESHOLD) {
+      byte[] compressed = deflate(body.getBytes());
+      if (compressed.length < body.length()) {
+        buffer.appendByte(COMPRESSED).appendInt(body.length()).appendBytes(compressed);
+        return buffer;
+      }
+    }
+    return buffer.appendByte((byte) 0).appendBuffer(body);
+  }
+
+  /**
+   * Decodes a configuration encoded by {@link #encode(JsonObject)}. The lengths and the sizes read from the buffer
+   * are checked against its length, so an invalid buffer cannot cause large allocations.
+   *
+   * @throws DecodeException if the buffer is not a valid encoding
+   */
+  public static JsonObject decode(Buffer buffer) {
+    try {
+      return decodeBody(buffer);
+    } catch (DecodeException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      // Out of bounds, invalid numbers...
+      throw new DecodeException("Invalid binary configuration: " + e.getMessage(), e);
+    }
+  }
+
+  private static JsonObject decodeBody(Buffer buffer) {
+    if (!isBinary(buffer)) {
+      throw new DecodeException("Not a binary configuration");
+    }
+    if (buffer.getByte(MAGIC.length) != VERSION) {
+      throw new DecodeException("Unsupported binary configuration version " + buffer.getByte(MAGIC.length));
+    }
+    Buffer body;
+    if ((buffer.getByte(MAGIC.length + 1) & COMPRESSED) != 0) {
+      int length = buffer.getInt(HEADER_LENGTH);
+      byte[] compressed = buffer.getBytes(HEADER_LENGTH + 4, buffer.length());
+      if (length < 0 || length > (long) compressed.length * MAX_COMPRESSION_RATIO) {
+        throw new DecodeException("Invalid uncompressed length " + length);
+      }
+      body = Buffer.buffer(inflate(compressed, length));
+    } else {
+      body = buffer.slice(HEADER_LENGTH, buffer.length());
+    }
+    Reader reader = new Reader(body);
+    // Each string takes one byte at least
+    int count = reader.readLength(1);
+    String[] strings = new String[count];
+    for (int i = 0; i < count; i++) {
+      int length = reader.readLength(1);
+      strings[i] = body.getString(reader.pos, reader.pos + length, "UTF-8");
+      reader.pos += length;
+    }
+    reader.strings = strings;
+    Object value = reader.read(0);
+    if (!(value instanceof JsonObject)) {
+      throw new DecodeException("The binary configuration is not a JSON object");
+    }
+    return (JsonObject) value;
+  }
+
+  private static byte[] deflate(byte[] bytes) {
+    Deflater deflater = new Deflater();
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      Buffer out = Buffer.buffer(bytes.length / 2);
+      byte[] chunk = new byte[4096];
+      while (!deflater.finished()) {
+        int n = deflater.deflate(chunk);
+        out.appendBytes(chunk, 0, n);
+      }
+      return out.getBytes();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] bytes, int length) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes);
+      // Grown as the data is inflated, rather than allocated from the announced length
+      Buffer out = Buffer.buffer(Math.min(length, 4096));
+      byte[] chunk = new byte[4096];
+      while (!inflater.finished()) {
+        int n = inflater.inflate(chunk);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        if (out.length() + n > length) {
+          throw new DecodeException("Binary configuration longer than announced");
+        }
+        out.appendBytes(chunk, 0, n);
+      }
+      if (out.length() != length) {
+        throw new DecodeException("Truncated binary configuration");
+      }
+      return out.getBytes();
+    } catch (DataFormatException e) {
+      throw new DecodeException("Corrupted binary configuration", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static class Writer {
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Fills the table with the keys and the string values, in order of appearance.
+     */
+    private void collect(Object value) {
+      if (value instanceof JsonObject) {
+        for (Map.Entry<String, Object> entry : (JsonObject) value) {
+          index(entry.getKey());
+          collect(entry.getValue());
+        }
+      } else if (value instanceof Map) {
+        collect(new JsonObject(cast(value)));
+      } else if (value instanceof JsonArray) {
+        for (Object item : (JsonArray) value) {
+          collect(item);
+        }
+      } else if (value instanceof List) {
+        collect(new JsonArray((List<?>) value));
+      } else if (value instanceof CharSequence || value instanceof Enum || value instanceof Instant) {
+        index(text(value));
+      } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+        index(value.toString());
+      }
+    }
+
+    private void index(String string) {
+      indexes.computeIfAbsent(string, s -> {
+        strings.add(s);
+        return strings.size() - 1;
+      });
+    }
+
+    private void write(Buffer buffer, Object value) {
+      if (value == null) {
+        buffer.appendByte(NULL);
+      } else if (value instanceof Boolean) {
+        buffer.appendByte((Boolean) value ? TRUE : FALSE);
+      } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+        long l = ((Number) value).longValue();
+        buffer.appendByte(INTEGER);
+        // Zig-zag, so the small negative numbers are short too
+        writeVarLong(buffer, (l << 1) ^ (l >> 63));
+      } else if (value instanceof Double || value instanceof Float) {
+        buffer.appendByte(DOUBLE).appendDouble(((Number) value).doubleValue());
+      } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+        buffer.appendByte(DECIMAL);
+        writeVarLong(buffer, indexes.get(value.toString()));
+      } else if (value instanceof CharSequence || value instanceof Enum || value instanceof Instant) {
+        buffer.appendByte(STRING);
+        writeVarLong(buffer, indexes.get(text(value)));
+      } else if (value instanceof JsonObject) {
+        JsonObject json = (JsonObject) value;
+        buffer.appendByte(OBJECT);
+        writeVarLong(buffer, json.size());
+        for (Map.Entry<String, Object> entry : json) {
+          writeVarLong(buffer, indexes.get(entry.getKey()));
+          write(buffer, entry.getValue());
+        }
+      } else if (value instanceof Map) {
+        write(buffer, new JsonObject(cast(value)));
+      } else if (value instanceof JsonArray) {
+        JsonArray array = (JsonArray) value;
+        buffer.appendByte(ARRAY);
+        writeVarLong(buffer, array.size());
+        for (Object item : array) {
+          write(buffer, item);
+        }
+      } else if (value instanceof List) {
+        write(buffer, new JsonArray((List<?>) value));
+      } else if (value instanceof byte[] || value instanceof Buffer) {
+        byte[] bytes = value instanceof Buffer ? ((Buffer) value).getBytes() : (byte[]) value;
+        buffer.appendByte(BINARY);
+        writeVarLong(buffer, bytes.length);
+        buffer.appendBytes(bytes);
+      } else {
+        throw new IllegalStateException("Unsupported type in the configuration: " + value.getClass().getName());
+      }
+    }
+
+    private void writeVarLong(Buffer buffer, long value) {
+      while ((value & ~0x7FL) != 0) {
+        buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.appendByte((byte) value);
+    }
+
+    private static String text(Object value) {
+      if (value instanceof Instant) {
+        // As in the textual JSON encoding
+        return DateTimeFormatter.ISO_INSTANT.format((Instant) value);
+      }
+      if (value instanceof Enum) {
+        return ((Enum<?>) value).name();
+      }
+      return value.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Object map) {
+      return (Map<String, Object>) map;
+    }
+  }
+
+  private static class Reader {
+
+    private final Buffer buffer;
+    private int pos;
+    private String[] strings;
+
+    private Reader(Buffer buffer) {
+      this.buffer = buffer;
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        if (shift > 63) {
+          throw new DecodeException("Malformed variable-length integer");
+        }
+        b = buffer.getByte(pos++);
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    /**
+     * Reads a length or a size, checking the rest of the buffer can hold it.
+     *
+     * @param unit the minimum number of bytes of each element
+     */
+    private int readLength(int unit) {
+      long length = readVarLong();
+      if (length < 0 || length > (buffer.length() - pos) / unit) {
+        throw new DecodeException("Invalid length " + length + " at " + pos);
+      }
+      return (int) length;
+    }
+
+    private String string() {
+      long index = readVarLong();
+      if (index < 0 || index >= strings.length) {
+        throw new DecodeException("Invalid string reference " + index);
+      }
+      return strings[(int) index];
+    }
+
+    private Object read(int depth) {
+      if (depth > MAX_DEPTH) {
+        throw new DecodeException("Binary configuration nested deeper than " + MAX_DEPTH);
+      }
+      byte type = buffer.getByte(pos++);
+      switch (type) {
+        case NULL:
+          return null;
+        case TRUE:
+          return true;
+        case FALSE:
+          return false;
+        case INTEGER:
+          long zigzag = readVarLong();
+          long l = (zigzag >>> 1) ^ -(zigzag & 1);
+          // As parsed from the textual JSON encoding
+          return l == (int) l ? (Object) (int) l : (Object) l;
+        case DOUBLE:
+          double d = buffer.getDouble(pos);
+          pos += 8;
+          return d;
+        case STRING:
+          return string();
+        case DECIMAL:
+          return new BigDecimal(string());
+        case OBJECT:
+          // Each entry takes a key and a value
+          int size = readLength(2);
+          Map<String, Object> map = new LinkedHashMap<>(Math.max(16, size * 2));
+          for (int i = 0; i < size; i++) {
+            String key = string();
+            map.put(key, read(depth + 1));
+          }
+          return new JsonObject(map);
+        case ARRAY:
+          int length = readLength(1);
+          List<Object> list = new ArrayList<>(length);
+          for (int i = 0; i < length; i++) {
+            list.add(read(depth + 1));
+          }
+          return new JsonArray(list);
+        case BINARY:
+          int count = readLength(1);
+          // Compared by content, and read by getBinary
+          Buffer bytes = buffer.getBuffer(pos, pos + count);
+          pos += count;
+          return bytes;
+        default:
+          throw new DecodeException("Unknown value type " + type);
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes the differences between two configurations. Objects are compared member by member, any other value,
+ * including arrays, is compared as a whole.
+ */
+public class ConfigDiff {
+
+  /**
+   * The kind of difference, named after the JSON Patch (RFC 6902) operations.
+   */
+  public enum Operation {
+    ADD, REMOVE, REPLACE
+  }
+
+  /**
+   * A difference between the two configurations.
+   */
+  public static class Entry {
+
+    private final Operation operation;
+    private final String path;
+    private final Object previousValue;
+    private final Object newValue;
+
+    private Entry(Operation operation, String path, Object previousValue, Object newValue) {
+      this.operation = operation;
+      this.path = path;
+      this.previousValue = previousValue;
+      this.newValue = newValue;
+    }
+
+    public Operation operation() {
+      return operation;
+    }
+
+    /**
+     * @return the JSON pointer of the value
+     */
+    public String path() {
+      return path;
+    }
+
+    public Object previousValue() {
+      return previousValue;
+    }
+
+    public Object newValue() {
+      return newValue;
+    }
+  }
+
+  /**
+   * @return the differences between the given configurations, in the order of their members.
+   */
+  public static List<Entry> diff(JsonObject previous, JsonObject current) {
+    List<Entry> entries = new ArrayList<>();
+    diff("", previous, current, entries);
+    return entries;
+  }
+
+  private static void diff(String pointer, JsonObject previous, JsonObject current, List<Entry> entries) {
+    Set<String> names = new LinkedHashSet<>(previous.fieldNames());
+    names.addAll(current.fieldNames());
+    for (String name : names) {
+      String path = pointer + "/" + PathListeners.escape(name);
+      Object a = previous.getValue(name);
+      Object b = current.getValue(name);
+      if (!previous.containsKey(name)) {
+        entries.add(new Entry(Operation.ADD, path, null, b));
+      } else if (!current.containsKey(name)) {
+        entries.add(new Entry(Operation.REMOVE, path, a, null));
+      } else if (a instanceof JsonObject && b instanceof JsonObject) {
+        diff(path, (JsonObject) a, (JsonObject) b, entries);
+      } else if (!same(a, b)) {
+        entries.add(new Entry(Operation.REPLACE, path, a, b));
+      }
+    }
+  }
+
+  /**
+   * @return the given differences as a JSON Patch (RFC 6902) document.
+   */
+  public static JsonArray toPatch(List<Entry> entries) {
+    JsonArray patch = new JsonArray();
+    for (Entry entry : entries) {
+      JsonObject operation = new JsonObject()
+        .put("op", entry.operation.name().toLowerCase())
+        .put("path", entry.path);
+      if (entry.operation != Operation.REMOVE) {
+        operation.put("value", entry.newValue);
+      }
+      patch.add(operation);
+    }
+    return patch;
+  }
+
+  /**
+   * Compares two configuration values. Numbers are compared by value, as their types can differ between formats.
+   */
+  static boolean same(Object a, Object b) {
+    if (a == b) {
+      return true;
+    }
+    if (a == null || b == null) {
+      return false;
+    }
+    if (a instanceof Number && b instanceof Number) {
+      Number x = (Number) a;
+      Number y = (Number) b;
+      if (x instanceof Double || x instanceof Float || y instanceof Double || y instanceof Float) {
+        return x.doubleValue() == y.doubleValue();
+      }
+      return x.longValue() == y.longValue();
+    }
+    return a.equals(b);
+  }
+}
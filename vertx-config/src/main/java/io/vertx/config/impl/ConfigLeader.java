@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.config.ConfigSnapshotCodec;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.Lock;
+
+/**
+ * Elects a leader among the retrievers configured with the same address, generally on the different nodes of a
+ * cluster, using a lock of the shared data.
+ * <p>
+ * The leader reads the stores, publishes each new configuration on the address with an increasing version, and
+ * replies to the requests of the current configuration sent to {@code address + ".get"}. The followers keep trying to
+ * get the lock, so one of them takes over when the leader is closed or its node leaves the cluster. On getting the
+ * lock, a leader takes a new epoch from a counter of the shared data, and numbers its configurations from 1 within
+ * it: the followers apply the configurations of a more recent epoch, or of the same epoch with a greater version,
+ * whatever the last version applied by the new leader. The configurations are sent with the
+ * {@link ConfigSnapshotCodec}.
+ */
+class ConfigLeader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfigLeader.class);
+
+  // The duration of the first attempt to get the lock, after which the retriever starts as a follower
+  private static final long FIRST_ATTEMPT = 100;
+  // The duration of the next attempts, repeated until the retriever is closed
+  private static final long ATTEMPT = 10_000;
+  // The delay before another attempt when getting the lock failed before the timeout
+  private static final long RETRY_DELAY = 1_000;
+  // The maximum duration of a request of the configuration to the leader
+  private static final long REQUEST_TIMEOUT = 5_000;
+
+  private final ContextInternal context;
+  private final String address;
+  private final ConfigRetrieverImpl retriever;
+  private final Promise<Void> ready;
+
+  // Guarded by this
+  private boolean closed;
+  private Lock lock;
+  private long epoch;
+  private long version;
+  private JsonObject last;
+  private Future<JsonObject> initial;
+  private MessageConsumer<JsonObject> updates;
+  private MessageConsumer<JsonObject> requests;
+
+  ConfigLeader(ContextInternal context, String address, ConfigRetrieverImpl retriever) {
+    this.context = context;
+    this.address = address;
+    this.retriever = retriever;
+    this.ready = context.promise();
+    ConfigSnapshotCodec.register(context.owner());
+  }
+
+  /**
+   * Starts listening to the configurations published by the leader, and tries to become the leader.
+   */
+  void start() {
+    context.runOnContext(v -> {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        updates = context.owner().eventBus().consumer(address, message -> apply(message.body()));
+      }
+      acquire(FIRST_ATTEMPT);
+    });
+  }
+
+  private void acquire(long timeout) {
+    long begin = System.currentTimeMillis();
+    context.owner().sharedData().getLockWithTimeout(address, timeout).onComplete(ar -> {
+      if (ar.succeeded()) {
+        lead(ar.result()).onComplete(v -> ready.tryComplete());
+        return;
+      }
+      ready.tryComplete();
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+      }
+      if (System.currentTimeMillis() - begin >= timeout) {
+        // Another retriever is the leader
+        acquire(ATTEMPT);
+      } else {
+        LOGGER.warn("Unable to get the lock electing the configuration leader of " + address, ar.cause());
+        context.setTimer(RETRY_DELAY, l -> acquire(ATTEMPT));
+      }
+    });
+  }
+
+  private Future<Void> lead(Lock lock) {
+    synchronized (this) {
+      if (closed) {
+        lock.release();
+        return context.succeededFuture();
+      }
+    }
+    return context.owner().sharedData().getCounter(address)
+      .compose(counter -> counter.incrementAndGet())
+      .transform(ar -> {
+        if (ar.failed()) {
+          LOGGER.warn("Unable to get the epoch of the configuration leader of " + address, ar.cause());
+          lock.release();
+          context.setTimer(RETRY_DELAY, l -> acquire(ATTEMPT));
+          return context.succeededFuture();
+        }
+        boolean takeOver;
+        synchronized (this) {
+          if (closed) {
+            lock.release();
+            return context.succeededFuture();
+          }
+          this.lock = lock;
+          takeOver = last != null;
+          epoch = ar.result();
+          version = 0;
+          requests = context.owner().eventBus().consumer(address + ".get", this::reply);
+        }
+        LOGGER.info("Reading the configuration distributed on " + address);
+        if (takeOver) {
+          // The configuration may have changed since the previous leader left
+          retriever.takeOver();
+        }
+        return context.succeededFuture();
+      });
+  }
+
+  /**
+   * @return a future completed once the first attempt to become the leader is completed
+   */
+  Future<Void> ready() {
+    return ready.future();
+  }
+
+  synchronized boolean isLeader() {
+    return lock != null;
+  }
+
+  /**
+   * Publishes the given configuration if the retriever is the leader.
+   */
+  void changed(JsonObject config, boolean complete) {
+    JsonObject message;
+    synchronized (this) {
+      if (lock == null) {
+        return;
+      }
+      version++;
+      message = new JsonObject().put("epoch", epoch).put("version", version).put("complete", complete)
+        .put("config", config);
+      last = message;
+    }
+    context.owner().eventBus().publish(address, message, ConfigSnapshotCodec.deliveryOptions());
+  }
+
+  /**
+   * Applies the configuration of the given message, unless a more recent one has already been applied.
+   */
+  private void apply(JsonObject message) {
+    long receivedEpoch = message.getLong("epoch", 0L);
+    long received = message.getLong("version", 0L);
+    synchronized (this) {
+      if (receivedEpoch < epoch || receivedEpoch == epoch && received <= version) {
+        // Including the configurations published by this retriever, and those of the previous leaders
+        return;
+      }
+      epoch = receivedEpoch;
+      version = received;
+      last = message;
+    }
+    retriever.apply(message.getJsonObject("config"), message.getBoolean("complete", true));
+  }
+
+  /**
+   * Requests the current configuration to the leader, and applies it.
+   *
+   * @return a future completed once applied, failed when there is no leader
+   */
+  Future<Void> fetch() {
+    return context.owner().eventBus()
+      .<JsonObject>request(address + ".get", new JsonObject(), new DeliveryOptions().setSendTimeout(REQUEST_TIMEOUT))
+      .map(message -> {
+        apply(message.body());
+        return null;
+      });
+  }
+
+  private void reply(Message<JsonObject> request) {
+    Promise<JsonObject> promise = null;
+    Future<JsonObject> future;
+    synchronized (this) {
+      if (last != null) {
+        request.reply(last, ConfigSnapshotCodec.deliveryOptions());
+        return;
+      }
+      // The configuration is read once, whatever the number of followers waiting for it
+      if (initial == null) {
+        promise = context.promise();
+        initial = promise.future();
+      }
+      future = initial;
+    }
+    if (promise != null) {
+      // Not under the lock, the retriever calls this object under its own lock
+      Promise<JsonObject> reading = promise;
+      retriever.getLocalConfig().onComplete(ar -> reading.handle(ar));
+    }
+    future.onComplete(ar -> {
+      if (ar.failed()) {
+        request.fail(500, ar.cause().getMessage());
+        return;
+      }
+      JsonObject message;
+      synchronized (this) {
+        message = last != null ? last :
+          new JsonObject().put("epoch", epoch).put("version", version).put("complete", true)
+            .put("config", ar.result());
+      }
+      request.reply(message, ConfigSnapshotCodec.deliveryOptions());
+    });
+  }
+
+  synchronized void close() {
+    closed = true;
+    if (updates != null) {
+      updates.unregister();
+    }
+    if (requests != null) {
+      requests.unregister();
+    }
+    if (lock != null) {
+      lock.release();
+      lock = null;
+    }
+  }
+}
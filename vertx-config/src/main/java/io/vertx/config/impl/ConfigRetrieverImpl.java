@@ -22,6 +22,7 @@ import io.vertx.config.ConfigChange;
 import io.vertx.config.ConfigRetriever;
 import io.vertx.config.ConfigRetrieverOptions;
 import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.ConfigValueChange;
 import io.vertx.config.spi.ConfigProcessor;
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.config.spi.ConfigStoreFactory;
@@ -35,7 +36,11 @@ import io.vertx.core.streams.ReadStream;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -48,21 +53,67 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
 
   private static final String DEFAULT_CONFIG_PATH = "conf" + File.separator + "config.json";
 
+  // The result of the providers not read yet, in a partial configuration
+  private static final JsonObject PENDING = new JsonObject();
+
   private final ContextInternal context;
   private final List<ConfigurationProvider> providers;
-  private long scan;
-  private final List<Handler<ConfigChange>> listeners = new ArrayList<>();
-  private final ConfigStreamImpl streamOfConfiguration = new ConfigStreamImpl();
+  // The providers scanned periodically, grouped by scan period. Guarded by this
+  private final List<ScanGroup> groups = new ArrayList<>();
+  private boolean closed;
+  private final AtomicLong skippedScans = new AtomicLong();
+  private final List<Handler<ConfigChange>> listeners = new CopyOnWriteArrayList<>();
+  private final PathListeners pathListeners = new PathListeners();
+  // The shared retrievers relying on this one, notified of the outcome of the scans
+  private final List<SharedConfigRetriever> sharers = new CopyOnWriteArrayList<>();
+  private final ConfigStreamImpl streamOfConfiguration;
   private final ConfigRetrieverOptions options;
 
-  private JsonObject current = new JsonObject();
-
-  private Handler<Void> beforeScan;
+  // Written on the retriever context under the lock, read without locking
+  private volatile JsonObject current = new JsonObject();
+  // Read-only view of current, built on demand and reset when the configuration changes
+  private volatile JsonObject snapshot;
+
+  // The local copy of the configuration, null if disabled
+  private final ConfigSnapshotFile snapshotFile;
+  // The last configuration written to the local copy
+  private volatile JsonObject persisted;
+  // Whether the next retrieval is the first one, guarded by this
+  private boolean firstRetrieval = true;
+  // Completed with the first configuration computed from all the stores
+  private final Promise<JsonObject> complete = Promise.promise();
+  // The election of the retriever reading the stores, null if every retriever reads them
+  private final ConfigLeader leader;
+
+  private volatile Handler<Void> beforeScan;
   private Function<JsonObject, JsonObject> processor;
 
+  // The results of the providers used by the last merge, the merge of the first i + 1 layers (except the last one),
+  // and the processed outcome. Guarded by this.
+  private List<JsonObject> layers = Collections.emptyList();
+  private List<JsonObject> prefixes = Collections.emptyList();
+  private JsonObject merged;
+
   public ConfigRetrieverImpl(Vertx vertx, ConfigRetrieverOptions options) {
-    this.context = (ContextInternal) vertx.getOrCreateContext();
+    this((ContextInternal) vertx.getOrCreateContext(), vertx.getOrCreateContext().config(), options);
+  }
+
+  /**
+   * Creates a retriever running on the given context.
+   *
+   * @param context          the context of the retriever
+   * @param deploymentConfig the configuration of the verticle, used by the default stores
+   * @param options          the options
+   */
+  ConfigRetrieverImpl(ContextInternal context, JsonObject deploymentConfig, ConfigRetrieverOptions options) {
+    Vertx vertx = context.owner();
+    this.context = context;
+    this.streamOfConfiguration = new ConfigStreamImpl(context, this::getCachedConfig);
     this.options = options;
+    this.snapshotFile = options.getSnapshotPath() == null ? null :
+      new ConfigSnapshotFile(context, options.getSnapshotPath(), options.getSnapshotSecret());
+    this.leader = options.getLeaderAddress() == null ? null :
+      new ConfigLeader(context, options.getLeaderAddress(), this);
 
     ServiceLoader<ConfigStoreFactory> storeImpl =
         ServiceLoader.load(ConfigStoreFactory.class,
@@ -77,11 +128,13 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
     List<ConfigStoreOptions> stores = options.getStores();
     if (options.isIncludeDefaultStores()) {
       stores = new ArrayList<>();
+      // The verticle configuration and the environment variables do not change, no need to scan them
       stores.add(
         new ConfigStoreOptions().setType("json")
-          .setConfig(vertx.getOrCreateContext().config()));
+          .setConfig(deploymentConfig)
+          .setScanPeriod(0L));
       stores.add(new ConfigStoreOptions().setType("sys"));
-      stores.add(new ConfigStoreOptions().setType("env"));
+      stores.add(new ConfigStoreOptions().setType("env").setScanPeriod(0L));
 
       // Insert the default config if configured.
       String defaultConfigPath = getDefaultConfigPath();
@@ -115,7 +168,8 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
       if (config == null) {
         config = new JsonObject();
       }
-      ConfigStore store = factory.create(vertx, config);
+      ConfigStore store = options.isShared() ? SharedConfigStore.acquire(vertx, type, config, factory) :
+        factory.create(vertx, config);
 
       String format = option.getFormat() != null ? option.getFormat() : "json";
       ConfigProcessor processor = Processors.get(format);
@@ -123,7 +177,8 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
         throw new IllegalArgumentException("unknown configuration format: " + format + " (supported formats are: " +
             Processors.getSupportedFormats());
       }
-      providers.add(new ConfigurationProvider(store, processor, option.getConfig(), option.isOptional()));
+      long scanPeriod = option.getScanPeriod() != null ? option.getScanPeriod() : options.getScanPeriod();
+      providers.add(new ConfigurationProvider(store, processor, option, scanPeriod));
     }
   }
 
@@ -162,31 +217,232 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
   }
 
   public synchronized void initializePeriodicScan() {
-    if (options.getScanPeriod() > 0) {
-      this.scan = context.setPeriodic(options.getScanPeriod(), l -> scan());
-    } else {
-      this.scan = -1;
+    // Stores notifying their changes do not need to be polled, the others are grouped by scan period
+    Map<Long, List<ConfigurationProvider>> groups = new TreeMap<>();
+    for (ConfigurationProvider provider : providers) {
+      if (!provider.watch(context, json -> refresh()) && provider.getScanPeriod() > 0) {
+        groups.computeIfAbsent(provider.getScanPeriod(), period -> new ArrayList<>()).add(provider);
+      }
+    }
+    groups.forEach((period, group) -> {
+      ScanGroup scanGroup = new ScanGroup(period, group);
+      this.groups.add(scanGroup);
+      schedule(scanGroup);
+    });
+    if (leader != null) {
+      leader.start();
+    }
+  }
+
+  /**
+   * Schedules the next scan of the given group, applying the jitter and the scan period after a change if
+   * configured.
+   */
+  private synchronized void schedule(ScanGroup group) {
+    if (closed) {
+      return;
+    }
+    long delay = group.period;
+    if (group.changed && options.getScanPeriodAfterChange() > 0) {
+      delay = Math.min(delay, options.getScanPeriodAfterChange());
+    }
+    double jitter = options.getScanJitter();
+    if (jitter > 0) {
+      delay = Math.max(1, Math.round(delay * (1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter))));
+    }
+    group.timer = context.setTimer(delay, l -> scan(group));
+  }
+
+  /**
+   * @return whether the provider must be read by a scan, or is waiting before being read again after failures.
+   */
+  private boolean isDue(ConfigurationProvider provider, long now) {
+    int failures = provider.failures();
+    long max = options.getMaxScanBackoff();
+    if (failures == 0 || max <= 0) {
+      return true;
     }
+    long period = provider.getScanPeriod();
+    long backoff = Math.min(max, period << Math.min(failures, 30));
+    if (backoff < 0) {
+      backoff = max;
+    }
+    // Accounts for the imprecision of the timers, the provider is read by the closest scan
+    return now - provider.lastFailure() >= backoff - period / 2;
   }
 
   @Override
   public Future<JsonObject> getConfig() {
-    return compute().onSuccess(result -> {
+    // The configuration is kept by the retriever, the caller gets its own copy
+    return config().map(JsonObject::copy);
+  }
+
+  private Future<JsonObject> config() {
+    if (leader == null) {
+      return getLocalConfig();
+    }
+    return leader.ready().compose(v -> {
+      if (leader.isLeader()) {
+        return getLocalConfig();
+      }
+      // The configuration of the leader, or of the stores when there is no leader
+      return leader.fetch().map(applied -> current).recover(err -> {
+        LOGGER.warn("Unable to get the configuration of the leader, reading the stores", err);
+        return getLocalConfig();
+      });
+    });
+  }
+
+  /**
+   * Retrieves the configuration from the stores.
+   */
+  Future<JsonObject> getLocalConfig() {
+    synchronized (this) {
+      if (!firstRetrieval) {
+        return retrieve();
+      }
+      firstRetrieval = false;
+    }
+    if (snapshotFile == null) {
+      return retrieveFirst();
+    }
+    return snapshotFile.read().compose(json -> {
+      boolean served = false;
+      if (json != null) {
+        synchronized (this) {
+          // Unless the configuration has already been computed in the meantime
+          if (layers.isEmpty()) {
+            current = json;
+            snapshot = null;
+            persisted = json;
+            served = true;
+          }
+        }
+      }
+      if (!served) {
+        return retrieveFirst();
+      }
+      if (leader != null) {
+        leader.changed(json, false);
+      }
+      // Revalidated in the background, a change is emitted if the stores provide another configuration
+      compute(provider -> true).onComplete(ar -> publish(ar));
+      streamOfConfiguration.handle(json);
+      return context.succeededFuture(json);
+    });
+  }
+
+  private Future<JsonObject> retrieveFirst() {
+    return options.isProgressive() ? retrieveProgressively() : retrieve();
+  }
+
+  private Future<JsonObject> retrieve() {
+    return compute(provider -> true).onSuccess(result -> {
+      boolean changed = false;
       synchronized (this) {
-        current = result;
+        if (!current.equals(result)) {
+          current = result;
+          snapshot = null;
+          changed = true;
+        }
+      }
+      if (changed && leader != null) {
+        leader.changed(result, true);
+      }
+      persist(result);
+      complete.tryComplete(result);
+      streamOfConfiguration.handle(result);
+    });
+  }
+
+  /**
+   * Retrieves the configuration of the stores that are not deferred, and then publishes the configuration each time
+   * a deferred store is read.
+   */
+  private Future<JsonObject> retrieveProgressively() {
+    if (providers.stream().noneMatch(ConfigurationProvider::isDeferred)) {
+      return retrieve();
+    }
+    List<Future<JsonObject>> futures = providers.stream()
+      .map(provider -> provider.get(context.owner()))
+      .collect(Collectors.toList());
+    List<Future<JsonObject>> awaited = new ArrayList<>();
+    for (int i = 0; i < providers.size(); i++) {
+      if (!providers.get(i).isDeferred()) {
+        awaited.add(futures.get(i));
+      }
+    }
+    Future<JsonObject> initial = context.succeededFuture().compose(v -> Future.all(awaited))
+      .map(v -> merge(available(futures)));
+    initial.onSuccess(result -> {
+      boolean changed = false;
+      synchronized (this) {
+        if (!current.equals(result)) {
+          current = result;
+          snapshot = null;
+          changed = true;
+        }
+      }
+      if (changed && leader != null) {
+        leader.changed(result, false);
       }
       streamOfConfiguration.handle(result);
+      for (int i = 0; i < futures.size(); i++) {
+        if (providers.get(i).isDeferred()) {
+          // The last one is published as the complete configuration
+          futures.get(i).onSuccess(json -> context.runOnContext(v -> {
+            if (!futures.stream().allMatch(Future::isComplete)) {
+              publish(Future.succeededFuture(merge(available(futures))), false);
+            }
+          }));
+        }
+      }
+      Future.all(futures).onComplete(ar -> context.runOnContext(v ->
+        publish(ar.map(all -> merge(available(futures))), true)));
     });
+    return initial;
+  }
+
+  /**
+   * @return the results of the providers, {@link #PENDING} for the providers not read yet or failing.
+   */
+  private static List<JsonObject> available(List<Future<JsonObject>> futures) {
+    return futures.stream()
+      .map(future -> future.succeeded() ? future.result() : PENDING)
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public Future<JsonObject> getCompleteConfig() {
+    return complete.future().map(JsonObject::copy);
+  }
+
+  /**
+   * Writes the given configuration to the local copy, if enabled and not already written.
+   */
+  private void persist(JsonObject json) {
+    JsonObject last = persisted;
+    if (snapshotFile == null || last == json || (last != null && last.equals(json))) {
+      return;
+    }
+    persisted = json;
+    // Copied as the configuration is handed to the application, which may modify it while it is written
+    snapshotFile.write(json.copy());
   }
 
   @Override
   public synchronized Future<Void> close() {
-    if (scan != -1) {
-      context.owner().cancelTimer(scan);
+    closed = true;
+    for (ScanGroup group : groups) {
+      context.owner().cancelTimer(group.timer);
     }
 
     streamOfConfiguration.close();
 
+    if (leader != null) {
+      leader.close();
+    }
+
     for (ConfigurationProvider provider : providers) {
       provider.close();
     }
@@ -195,18 +451,40 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
   }
 
   @Override
-  public synchronized JsonObject getCachedConfig() {
+  public JsonObject getCachedConfig() {
     return current.copy();
   }
 
   @Override
-  public synchronized void listen(Handler<ConfigChange> listener) {
+  public JsonObject getCachedConfigSnapshot() {
+    JsonObject json = snapshot;
+    if (json == null) {
+      synchronized (this) {
+        json = snapshot;
+        if (json == null) {
+          json = ReadOnlyJson.freeze(current);
+          snapshot = json;
+        }
+      }
+    }
+    return json;
+  }
+
+  @Override
+  public void listen(Handler<ConfigChange> listener) {
     Objects.requireNonNull(listener);
     listeners.add(listener);
   }
 
   @Override
-  public synchronized ConfigRetriever setBeforeScanHandler(Handler<Void> handler) {
+  public void listen(String path, Handler<ConfigValueChange> listener) {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(listener);
+    pathListeners.add(path, listener);
+  }
+
+  @Override
+  public ConfigRetriever setBeforeScanHandler(Handler<Void> handler) {
     this.beforeScan = Objects.requireNonNull(handler, "The handler must not be `null`");
     return this;
   }
@@ -214,6 +492,7 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
   @Override
   public synchronized ConfigRetriever setConfigurationProcessor(Function<JsonObject, JsonObject> processor) {
     this.processor = Objects.requireNonNull(processor, "The processor must not be `null`");
+    this.merged = null;
     return this;
   }
 
@@ -222,175 +501,254 @@ public class ConfigRetrieverImpl implements ConfigRetriever {
     return streamOfConfiguration;
   }
 
-  private void scan() {
-    Handler<Void> h;
+  /**
+   * Scans the given providers, reusing the last result of the others. The scan is skipped when the previous scan of
+   * these providers is not completed yet.
+   */
+  private void scan(ScanGroup group) {
     synchronized (this) {
-      h = this.beforeScan;
+      schedule(group);
+      if (!isReadingStores()) {
+        // The configuration is distributed by the leader
+        return;
+      }
+      if (group.scanning) {
+        skippedScans.incrementAndGet();
+        return;
+      }
     }
+    Handler<Void> h = this.beforeScan;
     if (h != null) {
       h.handle(null);
     }
-    compute().onFailure(throwable -> {
-      streamOfConfiguration.fail(throwable);
-      LOGGER.error("Error while scanning configuration", throwable);
-    }).onSuccess(result -> {
-      JsonObject prev;
-      List<Handler<ConfigChange>> handlers;
+    synchronized (this) {
+      group.scanning = true;
+    }
+    long now = System.currentTimeMillis();
+    compute(provider -> group.providers.contains(provider) && isDue(provider, now)).onComplete(ar -> {
+      boolean changed = publish(ar);
       synchronized (this) {
-        // Check for changes
-        if (!current.equals(result)) {
-          prev = current;
-          current = result;
-          handlers = !listeners.isEmpty() ? new ArrayList<>(listeners) : Collections.emptyList();
-        } else {
-          prev = null;
-          handlers = null;
+        group.scanning = false;
+        if (changed != group.changed) {
+          group.changed = changed;
+          if (options.getScanPeriodAfterChange() > 0 && !closed) {
+            // Switch to, or back from, the scan period after a change
+            context.owner().cancelTimer(group.timer);
+            schedule(group);
+          }
         }
       }
-      if (handlers != null) {
-        handlers.forEach(changeHandler -> changeHandler.handle(new ConfigChange(prev, result)));
-        streamOfConfiguration.handle(result);
-      }
     });
   }
 
-  private Future<JsonObject> compute() {
-    List<Future<JsonObject>> futures = providers.stream()
-      .map(s -> s.get(context.owner()))
-      .collect(Collectors.toList());
-
-    return context.succeededFuture().compose(v -> Future.all(futures).map(compositeFuture -> {
-      // Merge the different futures
-      JsonObject json = new JsonObject();
-      futures.forEach(future -> json.mergeIn((JsonObject) future.result(), true));
-      return json;
-    }).map(json -> processor != null ? processor.apply(json) : json));
+  /**
+   * Recomputes the configuration after a store notified a change, reusing the last results of the other stores.
+   */
+  private void refresh() {
+    if (!isReadingStores()) {
+      return;
+    }
+    compute(provider -> false).onComplete(ar -> publish(ar));
   }
 
   /**
-   * @return the list of providers. For introspection purpose.
+   * Publishes the outcome of a computation of the configuration.
+   *
+   * @return whether the configuration has changed
    */
-  public List<ConfigurationProvider> getProviders() {
-      return Collections.unmodifiableList(providers);
+  private boolean publish(AsyncResult<JsonObject> ar) {
+    return publish(ar, true);
   }
 
-  private class ConfigStreamImpl implements ReadStream<JsonObject> {
-
-    private Handler<JsonObject> handler;
-    private Handler<Throwable> exceptionHandler;
-    private Handler<Void> endHandler;
-
-    private JsonObject last;
-    private long demand = Long.MAX_VALUE;
-
-    @Override
-    public synchronized ReadStream<JsonObject> exceptionHandler(Handler<Throwable> handler) {
-      Objects.requireNonNull(handler);
-      this.exceptionHandler = handler;
-      return this;
+  /**
+   * Publishes the outcome of a computation of the configuration, which may only include the stores read so far.
+   *
+   * @return whether the configuration has changed
+   */
+  private boolean publish(AsyncResult<JsonObject> ar, boolean completed) {
+    if (ar.failed()) {
+      streamOfConfiguration.fail(ar.cause());
+      sharers.forEach(sharer -> sharer.failed(ar.cause()));
+      LOGGER.error("Error while scanning configuration", ar.cause());
+      return false;
     }
-
-    @Override
-    public ReadStream<JsonObject> handler(Handler<JsonObject> handler) {
-      Objects.requireNonNull(handler);
-      JsonObject conf;
-      synchronized (this) {
-        this.handler = handler;
-        conf = getCachedConfig();
-      }
-
-      if (conf != null && !conf.isEmpty()) {
-        context.runOnContext(v -> this.handler.handle(conf));
+    JsonObject result = ar.result();
+    if (completed) {
+      complete.tryComplete(result);
+    }
+    JsonObject prev;
+    synchronized (this) {
+      // Check for changes
+      prev = current;
+      if (prev.equals(result)) {
+        return false;
       }
-
-      return this;
+      current = result;
+      snapshot = null;
     }
-
-    @Override
-    public synchronized ReadStream<JsonObject> pause() {
-      demand = 0L;
-      return this;
+    if (leader != null) {
+      leader.changed(result, completed);
     }
-
-    @Override
-    public synchronized ReadStream<JsonObject> resume() {
-      boolean check = demand == 0;
-      demand = Long.MAX_VALUE;
-      if (check) {
-        checkPending();
-      }
-      return this;
+    if (completed) {
+      persist(result);
+    }
+    if (!listeners.isEmpty() || !sharers.isEmpty()) {
+      ConfigChange change = new ConfigChange(prev, result).setStaleStores(staleStores()).setComplete(completed);
+      // Each listener gets its own copy, as a listener may modify the configurations
+      listeners.forEach(changeHandler -> changeHandler.handle(new ConfigChange(change)));
+      sharers.forEach(sharer -> sharer.changed(prev, result, change));
     }
+    pathListeners.dispatch(prev, result);
+    streamOfConfiguration.handle(result);
+    return true;
+  }
 
-    @Override
-    public synchronized ReadStream<JsonObject> fetch(long amount) {
-      boolean check = demand == 0;
-      demand += amount;
-      if (demand < 0L) {
-        demand = Long.MAX_VALUE;
-      }
-      if (check) {
-        checkPending();
+  /**
+   * @return the names of the stores whose last good configuration is used because they failed.
+   */
+  private List<String> staleStores() {
+    List<String> stale = new ArrayList<>();
+    for (ConfigurationProvider provider : providers) {
+      if (provider.isStale()) {
+        stale.add(provider.getName());
       }
-      return this;
     }
+    return stale;
+  }
 
-    private void checkPending() {
-      Handler<JsonObject> succ = handler;
-      JsonObject conf = last;
-      last = null;
-      if (conf != null) {
-        if (demand != Long.MAX_VALUE) {
-          demand--;
-        }
-        if (succ != null) {
-          context.runOnContext(v -> succ.handle(conf));
+  /**
+   * Computes the configuration, fetching the providers accepted by the given predicate and reusing the last
+   * result of the others. Providers without result are always fetched.
+   */
+  private Future<JsonObject> compute(Predicate<ConfigurationProvider> fetch) {
+    List<Future<JsonObject>> futures = providers.stream()
+      .map(s -> {
+        JsonObject last = s.last();
+        if (last != null && fetch.test(s) && s.isStaleWhileRevalidate()) {
+          // The store is read in the background, and the configuration refreshed if it changed
+          s.get(context.owner()).onSuccess(json -> {
+            if (json != last) {
+              refresh();
+            }
+          });
+          return Future.succeededFuture(last);
         }
+        return last == null || fetch.test(s) ? s.get(context.owner()) : Future.succeededFuture(last);
+      })
+      .collect(Collectors.toList());
+
+    return context.succeededFuture().compose(v -> Future.all(futures).map(compositeFuture -> merge(
+      futures.stream().map(future -> (JsonObject) future.result()).collect(Collectors.toList()))));
+  }
+
+  /**
+   * Merges the results of the providers. Providers return the same instance when their configuration did not change,
+   * so the merge restarts from the first changed layer, reusing the merge of the previous ones. When no layer changed,
+   * the last outcome is reused.
+   * <p>
+   * The prefixes and the outcome share the nested objects of the results, so they are never modified: a merge starts
+   * from a copy of the previous prefix, and the outcome is copied when handed to the application.
+   */
+  private synchronized JsonObject merge(List<JsonObject> results) {
+    int size = results.size();
+    int first = 0;
+    while (first < size && first < layers.size() && results.get(first) == layers.get(first)) {
+      first++;
+    }
+    if (first == size && merged != null) {
+      return merged;
+    }
+    // The last layer is merged again when only the processor changed
+    first = Math.max(0, Math.min(first, size - 1));
+
+    List<JsonObject> newPrefixes = new ArrayList<>(prefixes.subList(0, first));
+    JsonObject json = first == 0 ? new JsonObject() : prefixes.get(first - 1).copy();
+    for (int i = first; i < size; i++) {
+      if (i > first) {
+        // The deep merge modifies the nested objects of the target, the prefix just kept must not change
+        json = json.copy();
+      }
+      JsonObject layer = results.get(i);
+      // The processor may modify the nested objects of the last layer, which are kept by its provider
+      json.mergeIn(i == size - 1 && processor != null ? layer.copy() : layer, true);
+      if (i < size - 1) {
+        newPrefixes.add(json);
       }
     }
+    JsonObject result = processor != null ? processor.apply(json) : json;
 
-    @Override
-    public synchronized ReadStream<JsonObject> endHandler(Handler<Void> endHandler) {
-      Objects.requireNonNull(endHandler);
-      this.endHandler = endHandler;
-      return this;
-    }
+    layers = results;
+    prefixes = newPrefixes;
+    merged = result;
+    return result;
+  }
 
-    synchronized void handle(JsonObject conf) {
-      Handler<JsonObject> succ = handler;
-      boolean isPaused = demand == 0;
-      if (isPaused) {
-        last = conf;
-      } else if (demand < Long.MAX_VALUE) {
-        demand--;
-      }
+  /**
+   * @return whether the stores are read by this retriever, rather than by the leader
+   */
+  private boolean isReadingStores() {
+    return leader == null || leader.isLeader();
+  }
 
-      if (!isPaused && succ != null) {
-        context.runOnContext(v -> succ.handle(conf));
-      }
+  /**
+   * Reads all the stores once elected to replace a previous leader.
+   */
+  void takeOver() {
+    compute(provider -> true).onComplete(ar -> publish(ar));
+  }
 
-    }
+  /**
+   * Applies a configuration published by the leader.
+   */
+  void apply(JsonObject config, boolean completed) {
+    publish(Future.succeededFuture(config), completed);
+  }
 
-    void fail(Throwable cause) {
-      Handler<Throwable> err;
-      synchronized (this) {
-        err = exceptionHandler;
-      }
+  void addSharer(SharedConfigRetriever sharer) {
+    sharers.add(sharer);
+  }
 
-      if (err != null) {
-        context.runOnContext(v -> err.handle(cause));
-      }
+  void removeSharer(SharedConfigRetriever sharer) {
+    sharers.remove(sharer);
+  }
 
-    }
+  /**
+   * @return whether the retriever is the leader reading the stores for the other retrievers configured with the same
+   * leader address. For introspection purpose.
+   */
+  public boolean isLeader() {
+    return leader != null && leader.isLeader();
+  }
 
-    void close() {
-      Handler<Void> handler;
-      synchronized (this) {
-        handler = endHandler;
-      }
-      if (handler != null) {
-        context.runOnContext(v -> handler.handle(null));
-      }
+  /**
+   * @return the number of periodic scans skipped because the previous one was not completed. For introspection
+   * purpose.
+   */
+  public long getSkippedScans() {
+    return skippedScans.get();
+  }
+
+  /**
+   * @return the list of providers. For introspection purpose.
+   */
+  public List<ConfigurationProvider> getProviders() {
+      return Collections.unmodifiableList(providers);
+  }
+
+  /**
+   * Providers scanned with the same period.
+   */
+  private static class ScanGroup {
+
+    private final long period;
+    private final List<ConfigurationProvider> providers;
+    private long timer;
+    private boolean scanning;
+    private boolean changed;
+
+    private ScanGroup(long period, List<ConfigurationProvider> providers) {
+      this.period = period;
+      this.providers = providers;
     }
   }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A local copy of the last computed configuration, read at startup before the stores are.
+ * <p>
+ * The file is written to a temporary file that replaces the previous one, so a crash never leaves a truncated
+ * snapshot. When a secret is configured, the content is encrypted with AES-GCM using a key derived from the secret
+ * (PBKDF2), and the file starts with a magic number followed by the salt and the initialization vector.
+ */
+class ConfigSnapshotFile {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSnapshotFile.class);
+
+  private static final byte[] MAGIC = {'V', 'X', 'C', 'S', 1};
+  private static final int SALT_LENGTH = 16;
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_LENGTH = 128;
+  private static final int ITERATIONS = 65536;
+  private static final int KEY_LENGTH = 256;
+
+  private final ContextInternal context;
+  private final Path path;
+  private final char[] secret;
+  private final SecureRandom random = new SecureRandom();
+
+  // The salt and key used to write the snapshots, derived on the first write
+  private byte[] salt;
+  private SecretKey key;
+
+  ConfigSnapshotFile(ContextInternal context, String path, String secret) {
+    this.context = context;
+    this.path = Paths.get(path).toAbsolutePath();
+    this.secret = secret == null ? null : secret.toCharArray();
+  }
+
+  /**
+   * Reads the snapshot.
+   *
+   * @return a future completed with the configuration, or {@code null} if the snapshot does not exist or cannot be
+   * read. It never fails.
+   */
+  Future<JsonObject> read() {
+    return context.<JsonObject>executeBlocking(() -> {
+      byte[] content;
+      try {
+        content = Files.readAllBytes(path);
+      } catch (NoSuchFileException e) {
+        return null;
+      }
+      if (secret != null) {
+        content = decrypt(content);
+      }
+      return Buffer.buffer(content).toJsonObject();
+    }, true).recover(err -> {
+      LOGGER.warn("Unable to read the configuration snapshot " + path + ", ignoring it", err);
+      return Future.succeededFuture();
+    });
+  }
+
+  /**
+   * Replaces the snapshot with the given configuration. The writes are executed in order.
+   */
+  Future<Void> write(JsonObject json) {
+    return context.<Void>executeBlocking(() -> {
+      byte[] content = json.toBuffer().getBytes();
+      if (secret != null) {
+        content = encrypt(content);
+      }
+      Path dir = path.getParent();
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+      try {
+        Files.write(tmp, content);
+        try {
+          Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      return null;
+    }, true).onFailure(err -> LOGGER.warn("Unable to write the configuration snapshot " + path, err));
+  }
+
+  private byte[] encrypt(byte[] content) throws GeneralSecurityException {
+    if (key == null) {
+      salt = new byte[SALT_LENGTH];
+      random.nextBytes(salt);
+      key = derive(salt);
+    }
+    byte[] iv = new byte[IV_LENGTH];
+    random.nextBytes(iv);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+    byte[] encrypted = cipher.doFinal(content);
+    return ByteBuffer.allocate(MAGIC.length + SALT_LENGTH + IV_LENGTH + encrypted.length)
+      .put(MAGIC).put(salt).put(iv).put(encrypted)
+      .array();
+  }
+
+  private byte[] decrypt(byte[] content) throws GeneralSecurityException, IOException {
+    if (content.length < MAGIC.length + SALT_LENGTH + IV_LENGTH
+      || !Arrays.equals(MAGIC, Arrays.copyOf(content, MAGIC.length))) {
+      throw new IOException("Not an encrypted configuration snapshot");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(content, MAGIC.length, content.length - MAGIC.length);
+    byte[] fileSalt = new byte[SALT_LENGTH];
+    byte[] iv = new byte[IV_LENGTH];
+    buffer.get(fileSalt).get(iv);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.DECRYPT_MODE, derive(fileSalt), new GCMParameterSpec(TAG_LENGTH, iv));
+    return cipher.doFinal(content, buffer.position(), buffer.remaining());
+  }
+
+  private SecretKey derive(byte[] salt) throws GeneralSecurityException {
+    SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+    byte[] encoded = factory.generateSecret(new PBEKeySpec(secret, salt, ITERATIONS, KEY_LENGTH)).getEncoded();
+    return new SecretKeySpec(encoded, "AES");
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The stream of the configurations computed by a retriever. Handlers are called on the context of the retriever, with
+ * their own copy of the configuration.
+ */
+class ConfigStreamImpl implements ReadStream<JsonObject> {
+
+  private final ContextInternal context;
+  // Provides the last configuration, delivered to the handler when it is set
+  private final Supplier<JsonObject> cached;
+
+  private volatile Handler<JsonObject> handler;
+  private volatile Handler<Throwable> exceptionHandler;
+  private volatile Handler<Void> endHandler;
+
+  // Guarded by this
+  private JsonObject last;
+  private long demand = Long.MAX_VALUE;
+
+  ConfigStreamImpl(ContextInternal context, Supplier<JsonObject> cached) {
+    this.context = context;
+    this.cached = cached;
+  }
+
+  @Override
+  public ReadStream<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+    Objects.requireNonNull(handler);
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<JsonObject> handler(Handler<JsonObject> handler) {
+    Objects.requireNonNull(handler);
+    JsonObject conf;
+    synchronized (this) {
+      this.handler = handler;
+      conf = cached.get();
+    }
+
+    if (conf != null && !conf.isEmpty()) {
+      context.runOnContext(v -> this.handler.handle(conf));
+    }
+
+    return this;
+  }
+
+  @Override
+  public synchronized ReadStream<JsonObject> pause() {
+    demand = 0L;
+    return this;
+  }
+
+  @Override
+  public synchronized ReadStream<JsonObject> resume() {
+    boolean check = demand == 0;
+    demand = Long.MAX_VALUE;
+    if (check) {
+      checkPending();
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized ReadStream<JsonObject> fetch(long amount) {
+    boolean check = demand == 0;
+    demand += amount;
+    if (demand < 0L) {
+      demand = Long.MAX_VALUE;
+    }
+    if (check) {
+      checkPending();
+    }
+    return this;
+  }
+
+  private void checkPending() {
+    Handler<JsonObject> succ = handler;
+    JsonObject conf = last;
+    last = null;
+    if (conf != null) {
+      if (demand != Long.MAX_VALUE) {
+        demand--;
+      }
+      if (succ != null) {
+        context.runOnContext(v -> succ.handle(conf.copy()));
+      }
+    }
+  }
+
+  @Override
+  public ReadStream<JsonObject> endHandler(Handler<Void> endHandler) {
+    Objects.requireNonNull(endHandler);
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  synchronized void handle(JsonObject conf) {
+    // Under the lock, so that a configuration is not delivered after the stream has been paused
+    Handler<JsonObject> succ = handler;
+    boolean isPaused = demand == 0;
+    if (isPaused) {
+      last = conf;
+    } else if (demand < Long.MAX_VALUE) {
+      demand--;
+    }
+
+    if (!isPaused && succ != null) {
+      context.runOnContext(v -> succ.handle(conf.copy()));
+    }
+
+  }
+
+  void fail(Throwable cause) {
+    Handler<Throwable> err = exceptionHandler;
+    if (err != null) {
+      context.runOnContext(v -> err.handle(cause));
+    }
+
+  }
+
+  void close() {
+    Handler<Void> handler = endHandler;
+    if (handler != null) {
+      context.runOnContext(v -> handler.handle(null));
+    }
+  }
+}
@@ -17,14 +17,30 @@
 
 package io.vertx.config.impl;
 
+import io.vertx.config.ConfigStoreOptions;
 import io.vertx.config.spi.ConfigProcessor;
+import io.vertx.config.impl.spi.JsonProcessor;
 import io.vertx.config.spi.ConfigStore;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.internal.logging.Logger;
 import io.vertx.core.internal.logging.LoggerFactory;
 import io.vertx.core.json.JsonObject;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * A configuration provider retrieve the configuration from a store and transform it to Json.
  *
@@ -32,6 +48,16 @@ import io.vertx.core.json.JsonObject;
  */
 public class ConfigurationProvider {
 
+  // The stores a progressive retrieval waits for, unless configured otherwise
+  private static final Set<String> LOCAL_STORES = new HashSet<>(Arrays.asList("json", "sys", "env", "file", "directory"));
+
+  // The number of latencies kept to compute the hedging threshold, and the number required to hedge
+  private static final int LATENCY_SAMPLES = 64;
+  private static final int MIN_LATENCY_SAMPLES = 10;
+
+  // The minimum delay in ms before hedging a read, so the fast stores are not read twice after a short stall
+  private static final long MIN_HEDGE_DELAY = 10;
+
   private final JsonObject configuration;
 
   private final boolean optional;
@@ -40,12 +66,73 @@ public class ConfigurationProvider {
 
   private final ConfigProcessor processor;
 
+  private final long scanPeriod;
+
+  private final String name;
+
+  private final Long maxStaleness;
+
+  private final boolean deferred;
+
+  private final long timeout;
+
+  private final Double hedgePercentile;
+
+  private final boolean staleWhileRevalidate;
+
+  private final boolean structured;
+
   private final Logger logger;
 
-  public ConfigurationProvider(ConfigStore store, ConfigProcessor processor, JsonObject config, boolean optional) {
+  private volatile boolean watched;
+
+  private volatile JsonObject last;
+
+  private volatile Processed processed;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong coalesced = new AtomicLong();
+
+  // The retrieval in progress, and the read of the store in progress, which may outlive a timed out retrieval.
+  // Guarded by this
+  private Future<JsonObject> fetching;
+  private Future<JsonObject> reading;
+
+  // The number of consecutive failures of the store, and the time in ms of the last one
+  private volatile int failures;
+  private volatile long lastFailure;
+
+  // The last configuration successfully retrieved from the store, and the time in ms of its retrieval
+  private volatile JsonObject lastGood;
+  private volatile long lastGoodTime;
+
+  // Whether the last configuration of this provider is the last good one, kept after a failure
+  private volatile boolean stale;
+
+  // The latencies in ns of the last successful reads, used to hedge the reads. Guarded by itself
+  private final long[] latencies = new long[LATENCY_SAMPLES];
+  private int latencyCount;
+
+  private final AtomicLong hedged = new AtomicLong();
+
+  public ConfigurationProvider(ConfigStore store, ConfigProcessor processor, ConfigStoreOptions options,
+                               long scanPeriod) {
     this.store = store;
     this.processor = processor;
-    this.optional = optional;
+    this.optional = options.isOptional();
+    this.scanPeriod = scanPeriod;
+    this.name = options.getName() != null ? options.getName() : options.getType();
+    this.maxStaleness = options.getMaxStaleness();
+    this.deferred = options.getDeferred() != null ? options.getDeferred() : !LOCAL_STORES.contains(options.getType());
+    this.timeout = options.getTimeout() != null ? options.getTimeout() : 0;
+    this.hedgePercentile = options.getHedgePercentile();
+    this.staleWhileRevalidate = options.isStaleWhileRevalidate();
+    JsonObject config = options.getConfig();
+    // Stores producing JSON objects skip the buffer round trip when the json format is used
+    this.structured = processor instanceof JsonProcessor;
     if (config == null) {
       this.configuration = new JsonObject();
     } else {
@@ -54,29 +141,350 @@ public class ConfigurationProvider {
     this.logger = LoggerFactory.getLogger("ConfigurationProvider#" + store);
   }
 
+  /**
+   * Retrieves the configuration of the store. While a retrieval is in progress, the callers share its outcome rather
+   * than querying the store again.
+   */
   Future<JsonObject> get(Vertx vertx) {
-    return store.get()
-      .onFailure(throwable -> {
-        if (optional && logger.isDebugEnabled()) {
-          logger.debug("Unable to retrieve the configuration", throwable);
+    Promise<JsonObject> promise;
+    synchronized (this) {
+      if (fetching != null) {
+        coalesced.incrementAndGet();
+        return fetching;
+      }
+      promise = Promise.promise();
+      fetching = promise.future();
+    }
+    Future<JsonObject> fetched;
+    try {
+      fetched = fetch(vertx);
+    } catch (RuntimeException e) {
+      // Otherwise the callers would wait forever for the retrieval in progress
+      fetched = Future.failedFuture(e);
+    }
+    fetched.onComplete(ar -> {
+      synchronized (this) {
+        fetching = null;
+      }
+      promise.handle(ar);
+    });
+    return promise.future();
+  }
+
+  private Future<JsonObject> fetch(Vertx vertx) {
+    return bounded(vertx, reading(vertx))
+      .onComplete(ar -> {
+        if (ar.succeeded()) {
+          failures = 0;
+          succeeded(ar.result());
+        } else {
+          lastFailure = System.currentTimeMillis();
+          failures++;
         }
       })
-      .flatMap(maybeBuffer -> {
-        return processor.process(vertx, configuration, maybeBuffer)
-          .onFailure(throwable -> {
-            if (optional) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("Failure caught when processing the configuration", throwable);
-              }
-            }
-          });
-      }).recover(throwable -> optional ? Future.succeededFuture(new JsonObject()) : Future.failedFuture(throwable));
+      .recover(this::fallback)
+      .map(this::update);
+  }
+
+  /**
+   * Reads and processes the configuration of the store.
+   */
+  private Future<JsonObject> read(Vertx vertx) {
+    long begin = System.nanoTime();
+    Future<JsonObject> json;
+    try {
+      json = structured ? store.getJson() : null;
+      if (json == null) {
+        json = store.get()
+          .onFailure(this::retrievalFailed)
+          .flatMap(maybeBuffer -> process(vertx, maybeBuffer));
+      } else {
+        json = json.onFailure(this::retrievalFailed);
+      }
+    } catch (RuntimeException e) {
+      // A store throwing instead of returning a failed future
+      retrievalFailed(e);
+      json = Future.failedFuture(e);
+    }
+    if (hedgePercentile != null) {
+      json = json.onSuccess(v -> recordLatency(System.nanoTime() - begin));
+    }
+    return json;
+  }
+
+  /**
+   * Reads the store, unless the read of a timed out retrieval is still in progress: the retrieval then waits for it
+   * instead of piling another read on a store failing to respond.
+   */
+  private Future<JsonObject> reading(Vertx vertx) {
+    Promise<JsonObject> promise;
+    synchronized (this) {
+      if (reading != null) {
+        return reading;
+      }
+      promise = Promise.promise();
+      reading = promise.future();
+    }
+    hedged(vertx).onComplete(ar -> {
+      synchronized (this) {
+        reading = null;
+      }
+      promise.handle(ar);
+    });
+    return promise.future();
+  }
+
+  /**
+   * Reads the store, issuing a second read when the first one is slower than the hedging threshold. The outcome is
+   * the first successful read, or a failure if all the reads failed.
+   */
+  private Future<JsonObject> hedged(Vertx vertx) {
+    long threshold = hedgeThreshold();
+    if (threshold < 0) {
+      return read(vertx);
+    }
+    Promise<JsonObject> promise = Promise.promise();
+    AtomicInteger pending = new AtomicInteger(1);
+    Handler<AsyncResult<JsonObject>> handler = ar -> {
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else if (pending.decrementAndGet() == 0) {
+        promise.tryFail(ar.cause());
+      }
+    };
+    long timer = vertx.setTimer(Math.max(MIN_HEDGE_DELAY, threshold), l -> {
+      if (!promise.future().isComplete()) {
+        pending.incrementAndGet();
+        hedged.incrementAndGet();
+        read(vertx).onComplete(handler);
+      }
+    });
+    read(vertx).onComplete(ar -> {
+      vertx.cancelTimer(timer);
+      handler.handle(ar);
+    });
+    return promise.future();
+  }
+
+  /**
+   * @return the delay in ms after which a read is hedged, {@code -1} if reads are not hedged.
+   */
+  private long hedgeThreshold() {
+    if (hedgePercentile == null) {
+      return -1;
+    }
+    long[] sorted;
+    synchronized (latencies) {
+      if (latencyCount < MIN_LATENCY_SAMPLES) {
+        return -1;
+      }
+      sorted = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_SAMPLES));
+    }
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(hedgePercentile / 100 * sorted.length) - 1;
+    return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+  }
+
+  private void recordLatency(long latency) {
+    synchronized (latencies) {
+      latencies[latencyCount++ % LATENCY_SAMPLES] = latency;
+      if (latencyCount == 2 * LATENCY_SAMPLES) {
+        // Keeps the position in the ring without overflowing
+        latencyCount = LATENCY_SAMPLES;
+      }
+    }
+  }
+
+  /**
+   * Fails the given read if it does not complete within the timeout of the store. The read itself goes on.
+   */
+  private Future<JsonObject> bounded(Vertx vertx, Future<JsonObject> json) {
+    if (timeout <= 0) {
+      return json;
+    }
+    Promise<JsonObject> promise = Promise.promise();
+    long timer = vertx.setTimer(timeout, l -> promise.tryFail(
+      new TimeoutException("The store did not respond within " + timeout + " ms")));
+    json.onComplete(ar -> {
+      vertx.cancelTimer(timer);
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else {
+        promise.tryFail(ar.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  private void succeeded(JsonObject json) {
+    lastGood = json;
+    lastGoodTime = System.currentTimeMillis();
+    stale = false;
+  }
+
+  /**
+   * Computes the configuration of the provider when the store fails: the last good configuration if it is not older
+   * than the maximum staleness, an empty object for optional stores, and the failure otherwise.
+   */
+  private Future<JsonObject> fallback(Throwable throwable) {
+    JsonObject good = lastGood;
+    if (maxStaleness != null && good != null && System.currentTimeMillis() - lastGoodTime <= maxStaleness) {
+      if (!stale && logger.isDebugEnabled()) {
+        logger.debug("Using the last good configuration of the store", throwable);
+      }
+      stale = true;
+      return Future.succeededFuture(good);
+    }
+    stale = false;
+    return optional ? Future.succeededFuture(new JsonObject()) : Future.failedFuture(throwable);
+  }
+
+  private void retrievalFailed(Throwable throwable) {
+    if (optional && logger.isDebugEnabled()) {
+      logger.debug("Unable to retrieve the configuration", throwable);
+    }
+  }
+
+  /**
+   * Records the given configuration as the last one of this provider. When it is equal to the previous one, the
+   * previous instance is kept and returned, so callers can detect unchanged providers by identity.
+   */
+  private synchronized JsonObject update(JsonObject json) {
+    JsonObject prev = last;
+    if (prev != null && prev.equals(json)) {
+      return prev;
+    }
+    last = json;
+    return json;
+  }
+
+  /**
+   * Registers a change handler on the underlying store. Notifications are processed on the given context and
+   * the handler receives the resulting configuration.
+   *
+   * @param context the context on which notifications are processed
+   * @param handler the handler called with the new configuration of this provider
+   * @return whether the store supports change notifications
+   */
+  boolean watch(ContextInternal context, Handler<JsonObject> handler) {
+    watched = store.watch(buffer -> context.runOnContext(v -> {
+      if (buffer == null) {
+        // The store is read again, not coalesced with a read started before the change
+        JsonObject prev = last;
+        fetch(context.owner()).onSuccess(json -> {
+          if (json != prev) {
+            handler.handle(json);
+          }
+        });
+        return;
+      }
+      process(context.owner(), buffer).onComplete(ar -> {
+        if (ar.succeeded()) {
+          succeeded(ar.result());
+          JsonObject prev = last;
+          JsonObject json = update(ar.result());
+          if (json != prev) {
+            handler.handle(json);
+          }
+        } else if (!optional) {
+          logger.error("Unable to process the configuration change", ar.cause());
+        }
+      });
+    }));
+    return watched;
+  }
+
+  /**
+   * Processes the given buffer. When its content is the same as the last processed one, the processor is not called
+   * and the previous result is returned.
+   */
+  private Future<JsonObject> process(Vertx vertx, Buffer buffer) {
+    Processed previous = processed;
+    // Buffers of different lengths are told apart without comparing their content
+    if (previous != null && Objects.equals(previous.buffer, buffer)) {
+      hits.incrementAndGet();
+      return Future.succeededFuture(previous.json);
+    }
+    misses.incrementAndGet();
+    return processor.process(vertx, configuration, buffer)
+      .onSuccess(json -> processed = new Processed(buffer, json))
+      .onFailure(throwable -> {
+        processed = null;
+        if (optional) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Failure caught when processing the configuration", throwable);
+          }
+        }
+      });
+  }
+
+  /**
+   * @return whether the store notifies its changes, in which case it is not polled.
+   */
+  boolean isWatched() {
+    return watched;
+  }
+
+  /**
+   * @return the period in ms between two scans of the store, the store is not scanned if lower or equal to 0.
+   */
+  long getScanPeriod() {
+    return scanPeriod;
+  }
+
+  /**
+   * @return the number of consecutive failures of the store, {@code 0} if the last retrieval succeeded.
+   */
+  int failures() {
+    return failures;
+  }
+
+  /**
+   * @return the time in ms of the last failure of the store.
+   */
+  long lastFailure() {
+    return lastFailure;
+  }
+
+  /**
+   * @return the last configuration computed by this provider, {@code null} if none has been computed yet.
+   */
+  JsonObject last() {
+    return last;
+  }
+
+  /**
+   * @return whether the store failed and the provider uses its last good configuration instead.
+   */
+  boolean isStale() {
+    return stale;
+  }
+
+  /**
+   * @return whether the computations of the configuration use the last configuration of the store while it is read.
+   */
+  boolean isStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+
+  /**
+   * @return whether the progressive retrievals do not wait for the store.
+   */
+  boolean isDeferred() {
+    return deferred;
   }
 
   void close() {
     store.close();
   }
 
+  /**
+   * @return the name of the store, {@code null} if the provider has not been named.
+   */
+  public String getName() {
+    return name;
+  }
+
   public ConfigStore getStore() {
     return store;
   }
@@ -84,4 +492,46 @@ public class ConfigurationProvider {
   public ConfigProcessor getProcessor() {
     return processor;
   }
+
+  /**
+   * @return the number of retrieved buffers whose content was unchanged, and so not processed again.
+   */
+  public long getCacheHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of retrieved buffers that have been handed to the processor.
+   */
+  public long getCacheMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return the number of retrievals that have joined a retrieval in progress instead of querying the store.
+   */
+  public long getCoalescedFetches() {
+    return coalesced.get();
+  }
+
+  /**
+   * @return the number of reads issued because a read was slower than the hedging threshold.
+   */
+  public long getHedgedReads() {
+    return hedged.get();
+  }
+
+  /**
+   * The result of the processing of a buffer, along with the buffer.
+   */
+  private static class Processed {
+
+    private final Buffer buffer;
+    private final JsonObject json;
+
+    private Processed(Buffer buffer, JsonObject json) {
+      this.buffer = buffer;
+      this.json = json;
+    }
+  }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.config.ConfigValueChange;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listeners registered on parts of the configuration, indexed by the tokens of their JSON pointer. Dispatching a
+ * change only walks the branches having listeners, and stops as soon as the values of a branch are equal.
+ * <p>
+ * Listeners can be registered while changes are dispatched.
+ */
+public class PathListeners {
+
+  private final Node root = new Node("");
+
+  /**
+   * Registers a listener.
+   *
+   * @param path     the JSON pointer (RFC 6901) of the value
+   * @param listener the listener
+   * @throws IllegalArgumentException if the pointer is invalid
+   */
+  void add(String path, Handler<ConfigValueChange> listener) {
+    Node node = root;
+    for (String token : parse(path)) {
+      String pointer = node.pointer + "/" + escape(token);
+      node = node.children.computeIfAbsent(token, t -> new Node(pointer));
+    }
+    node.listeners.add(listener);
+  }
+
+  /**
+   * Notifies the listeners of the values that differ between the given configurations.
+   */
+  void dispatch(JsonObject previous, JsonObject current) {
+    if (root.children.isEmpty() && root.listeners.isEmpty()) {
+      return;
+    }
+    List<Runnable> notifications = new ArrayList<>();
+    collect(root, previous, current, notifications);
+    notifications.forEach(Runnable::run);
+  }
+
+  private static void collect(Node node, Object previous, Object current, List<Runnable> notifications) {
+    if (ConfigDiff.same(previous, current)) {
+      return;
+    }
+    for (Handler<ConfigValueChange> listener : node.listeners) {
+      // Each listener gets its own copy of the values, as a listener may modify them
+      ConfigValueChange change = new ConfigValueChange(node.pointer, copy(previous), copy(current));
+      notifications.add(() -> listener.handle(change));
+    }
+    for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+      collect(entry.getValue(), child(previous, entry.getKey()), child(current, entry.getKey()), notifications);
+    }
+  }
+
+  private static Object copy(Object value) {
+    if (value instanceof JsonObject) {
+      return ((JsonObject) value).copy();
+    }
+    if (value instanceof JsonArray) {
+      return ((JsonArray) value).copy();
+    }
+    return value;
+  }
+
+  private static Object child(Object value, String token) {
+    if (value instanceof JsonObject) {
+      return ((JsonObject) value).getValue(token);
+    }
+    if (value instanceof JsonArray) {
+      JsonArray array = (JsonArray) value;
+      try {
+        int index = Integer.parseInt(token);
+        return index >= 0 && index < array.size() ? array.getValue(index) : null;
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parses a JSON pointer (RFC 6901) into its reference tokens, unescaped.
+   *
+   * @param path the pointer, {@code null} or empty for the whole document
+   * @return the tokens
+   * @throws IllegalArgumentException if the pointer is invalid
+   */
+  public static List<String> parse(String path) {
+    List<String> tokens = new ArrayList<>();
+    if (path == null || path.isEmpty()) {
+      return tokens;
+    }
+    if (!path.startsWith("/")) {
+      throw new IllegalArgumentException("Invalid JSON pointer, it must start with '/': " + path);
+    }
+    for (String token : path.substring(1).split("/", -1)) {
+      tokens.add(token.replace("~1", "/").replace("~0", "~"));
+    }
+    return tokens;
+  }
+
+  static String escape(String token) {
+    return token.replace("~", "~0").replace("/", "~1");
+  }
+
+  private static class Node {
+
+    private final String pointer;
+    private final Map<String, Node> children = new ConcurrentHashMap<>();
+    private final List<Handler<ConfigValueChange>> listeners = new CopyOnWriteArrayList<>();
+
+    private Node(String pointer) {
+      this.pointer = pointer;
+    }
+  }
+}
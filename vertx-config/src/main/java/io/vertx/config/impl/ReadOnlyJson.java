@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds read-only JSON structures: the returned objects and arrays, including the nested ones, are backed by
+ * unmodifiable collections, so any attempt to modify them throws an {@link UnsupportedOperationException}. They can be
+ * shared between threads without copies, and {@link JsonObject#copy()} returns a modifiable copy.
+ */
+class ReadOnlyJson {
+
+  static JsonObject freeze(JsonObject json) {
+    Map<String, Object> map = new LinkedHashMap<>(json.size());
+    json.getMap().forEach((key, value) -> map.put(key, freezeValue(value)));
+    return new JsonObject(Collections.unmodifiableMap(map));
+  }
+
+  static JsonArray freeze(JsonArray json) {
+    List<Object> list = new ArrayList<>(json.size());
+    for (Object value : json.getList()) {
+      list.add(freezeValue(value));
+    }
+    return new JsonArray(Collections.unmodifiableList(list));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object freezeValue(Object value) {
+    if (value instanceof JsonObject) {
+      return freeze((JsonObject) value);
+    }
+    if (value instanceof Map) {
+      return freeze(new JsonObject((Map<String, Object>) value));
+    }
+    if (value instanceof JsonArray) {
+      return freeze((JsonArray) value);
+    }
+    if (value instanceof List) {
+      return freeze(new JsonArray((List<Object>) value));
+    }
+    if (value instanceof byte[]) {
+      // Returned as is by JsonObject#getBinary
+      return ((byte[]) value).clone();
+    }
+    return value;
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.config.ConfigChange;
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigValueChange;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.Closeable;
+import io.vertx.core.internal.CloseableResource;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * A retriever relying on a retriever shared by all the retrievers of a Vert.x instance created with the same
+ * options. The shared retriever reads the stores and scans them; this one dispatches the outcome to its own
+ * listeners and stream, on its own context. The shared retriever is closed once all the retrievers relying on it are
+ * closed, a retriever being closed with the verticle creating it.
+ */
+public class SharedConfigRetriever implements ConfigRetriever {
+
+  private static final String RETRIEVERS = "__vertx.config.retrievers";
+
+  private final ContextInternal context;
+  private final ConfigRetrieverImpl delegate;
+  private final CloseableResource<Shared> resource;
+  private final Closeable closeHook = completion -> close().onComplete(completion);
+  private final ConfigStreamImpl streamOfConfiguration;
+  private final List<Handler<ConfigChange>> listeners = new CopyOnWriteArrayList<>();
+  private final PathListeners pathListeners = new PathListeners();
+
+  private SharedConfigRetriever(ContextInternal context, CloseableResource<Shared> resource) {
+    this.context = context;
+    this.delegate = resource.get().retriever;
+    this.resource = resource;
+    this.streamOfConfiguration = new ConfigStreamImpl(context, delegate::getCachedConfig);
+  }
+
+  /**
+   * Creates a retriever relying on the shared retriever created with the same options, creating it if needed.
+   *
+   * @param vertx   the vert.x instance
+   * @param options the options
+   * @return the retriever
+   */
+  public static ConfigRetriever create(Vertx vertx, ConfigRetrieverOptions options) {
+    ContextInternal context = (ContextInternal) vertx.getOrCreateContext();
+    JsonObject deploymentConfig = context.config();
+    String key = SharedConfigStore.canonical(options.toJson());
+    if (options.isIncludeDefaultStores() && deploymentConfig != null) {
+      // The default stores include the configuration of the verticle
+      key += SharedConfigStore.canonical(deploymentConfig);
+    }
+    VertxInternal owner = (VertxInternal) vertx;
+    CloseableResource<Shared> resource = owner.createSharedResource(RETRIEVERS, key, () -> {
+      // Not bound to the verticle creating it, which may be undeployed before the others. The stores are created on
+      // its context too, so their clients and consumers are not closed with the verticle
+      ContextInternal retrieverContext = owner.createEventLoopContext();
+      ContextInternal prev = retrieverContext.beginDispatch();
+      ConfigRetrieverImpl retriever;
+      try {
+        retriever = new ConfigRetrieverImpl(retrieverContext, deploymentConfig, options);
+        retriever.initializePeriodicScan();
+      } finally {
+        retrieverContext.endDispatch(prev);
+      }
+      return new Shared(retriever);
+    });
+    SharedConfigRetriever retriever = new SharedConfigRetriever(context, resource);
+    retriever.delegate.addSharer(retriever);
+    // Released when the verticle is undeployed without closing it
+    context.closeFuture().add(retriever.closeHook);
+    return retriever;
+  }
+
+  void changed(JsonObject prev, JsonObject conf, ConfigChange change) {
+    // The configurations are not modified by the shared retriever, each listener gets its own copy
+    context.runOnContext(v -> {
+      listeners.forEach(listener -> listener.handle(new ConfigChange(change)));
+      pathListeners.dispatch(prev, conf);
+    });
+    streamOfConfiguration.handle(conf);
+  }
+
+  void failed(Throwable cause) {
+    streamOfConfiguration.fail(cause);
+  }
+
+  @Override
+  public Future<JsonObject> getConfig() {
+    Promise<JsonObject> promise = context.promise();
+    delegate.getConfig().onComplete(ar -> promise.handle(ar));
+    return promise.future().onSuccess(json -> streamOfConfiguration.handle(json));
+  }
+
+  @Override
+  public Future<JsonObject> getCompleteConfig() {
+    Promise<JsonObject> promise = context.promise();
+    delegate.getCompleteConfig().onComplete(ar -> promise.handle(ar));
+    return promise.future();
+  }
+
+  @Override
+  public Future<Void> close() {
+    context.closeFuture().remove(closeHook);
+    delegate.removeSharer(this);
+    streamOfConfiguration.close();
+    return resource.close();
+  }
+
+  @Override
+  public JsonObject getCachedConfig() {
+    return delegate.getCachedConfig();
+  }
+
+  @Override
+  public JsonObject getCachedConfigSnapshot() {
+    return delegate.getCachedConfigSnapshot();
+  }
+
+  @Override
+  public void listen(Handler<ConfigChange> listener) {
+    Objects.requireNonNull(listener);
+    listeners.add(listener);
+  }
+
+  @Override
+  public void listen(String path, Handler<ConfigValueChange> listener) {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(listener);
+    pathListeners.add(path, listener);
+  }
+
+  /**
+   * Not supported, the scans are shared with other retrievers.
+   */
+  @Override
+  public ConfigRetriever setBeforeScanHandler(Handler<Void> handler) {
+    throw new UnsupportedOperationException("The scans of a shared retriever cannot be observed");
+  }
+
+  /**
+   * Not supported, the configuration is shared with other retrievers.
+   */
+  @Override
+  public ConfigRetriever setConfigurationProcessor(Function<JsonObject, JsonObject> processor) {
+    throw new UnsupportedOperationException("The configuration of a shared retriever cannot be processed");
+  }
+
+  @Override
+  public ReadStream<JsonObject> configStream() {
+    return streamOfConfiguration;
+  }
+
+  /**
+   * @return the shared retriever. For introspection purpose.
+   */
+  public ConfigRetrieverImpl getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * The shared retriever, closed with the last retriever relying on it.
+   */
+  private static class Shared implements io.vertx.core.internal.Closeable {
+
+    private final ConfigRetrieverImpl retriever;
+
+    private Shared(ConfigRetrieverImpl retriever) {
+      this.retriever = retriever;
+    }
+
+    @Override
+    public Future<Void> shutdown(Duration timeout) {
+      return retriever.close();
+    }
+  }
+}
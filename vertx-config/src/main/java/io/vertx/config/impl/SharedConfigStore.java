@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl;
+
+import io.vertx.config.spi.ConfigStore;
+import io.vertx.config.spi.ConfigStoreFactory;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.Closeable;
+import io.vertx.core.internal.CloseableResource;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * A store shared by the retrievers of a Vert.x instance using the same type of store with the same configuration.
+ * The reads in progress are shared between the retrievers, and the changes notified by the store are dispatched to
+ * all of them. The store is closed once all the retrievers using it are closed.
+ */
+class SharedConfigStore implements io.vertx.core.internal.Closeable {
+
+  private static final String STORES = "__vertx.config.stores";
+
+  private final ConfigStore store;
+
+  private final List<Handler<Buffer>> watchers = new CopyOnWriteArrayList<>();
+
+  // The reads in progress and whether the store notifies its changes, guarded by this
+  private Future<Buffer> reading;
+  private Future<JsonObject> readingJson;
+  private Boolean watching;
+
+  private SharedConfigStore(ConfigStore store) {
+    this.store = store;
+  }
+
+  /**
+   * Gets the store of the given type and configuration, creating it if no retriever uses it yet.
+   *
+   * @return the store, to be closed by the retriever when done
+   */
+  static ConfigStore acquire(Vertx vertx, String type, JsonObject config, ConfigStoreFactory factory) {
+    CloseableResource<SharedConfigStore> resource = ((VertxInternal) vertx).createSharedResource(STORES,
+      type + ":" + canonical(config), () -> new SharedConfigStore(factory.create(vertx, config)));
+    return resource.get().new Handle((ContextInternal) vertx.getOrCreateContext(), resource);
+  }
+
+  @Override
+  public Future<Void> shutdown(Duration timeout) {
+    return store.close();
+  }
+
+  /**
+   * @return the encoding of the given object with sorted keys, so equal objects have the same encoding
+   */
+  static String canonical(JsonObject json) {
+    return ((JsonObject) sorted(json)).encode();
+  }
+
+  private static Object sorted(Object value) {
+    if (value instanceof JsonObject) {
+      Map<String, Object> map = new TreeMap<>();
+      ((JsonObject) value).forEach(entry -> map.put(entry.getKey(), sorted(entry.getValue())));
+      return new JsonObject(map);
+    }
+    if (value instanceof JsonArray) {
+      return new JsonArray(((JsonArray) value).stream().map(SharedConfigStore::sorted).collect(Collectors.toList()));
+    }
+    return value;
+  }
+
+  private Future<Buffer> get() {
+    Promise<Buffer> promise;
+    Future<Buffer> buffer;
+    synchronized (this) {
+      if (reading != null) {
+        return reading;
+      }
+      buffer = store.get();
+      promise = Promise.promise();
+      reading = promise.future();
+    }
+    buffer.onComplete(ar -> {
+      synchronized (this) {
+        reading = null;
+      }
+      promise.handle(ar);
+    });
+    return promise.future();
+  }
+
+  private Future<JsonObject> getJson() {
+    Promise<JsonObject> promise;
+    Future<JsonObject> json;
+    synchronized (this) {
+      if (readingJson != null) {
+        return readingJson;
+      }
+      json = store.getJson();
+      if (json == null) {
+        return null;
+      }
+      promise = Promise.promise();
+      readingJson = promise.future();
+    }
+    json.onComplete(ar -> {
+      synchronized (this) {
+        readingJson = null;
+      }
+      promise.handle(ar);
+    });
+    return promise.future();
+  }
+
+  private synchronized boolean watch(Handler<Buffer> handler) {
+    if (watching == null) {
+      watching = store.watch(buffer -> watchers.forEach(watcher -> watcher.handle(buffer)));
+    }
+    // Even when polled, the store may notify some changes
+    watchers.add(handler);
+    return watching;
+  }
+
+  /**
+   * The store as seen by a retriever.
+   */
+  private class Handle implements ConfigStore {
+
+    private final ContextInternal context;
+    private final CloseableResource<SharedConfigStore> resource;
+    private final Closeable closeHook = completion -> close().onComplete(completion);
+    private volatile Handler<Buffer> watcher;
+
+    private Handle(ContextInternal context, CloseableResource<SharedConfigStore> resource) {
+      this.context = context;
+      this.resource = resource;
+      // Released when the verticle of the retriever is undeployed without closing it
+      context.closeFuture().add(closeHook);
+    }
+
+    @Override
+    public Future<Buffer> get() {
+      return SharedConfigStore.this.get();
+    }
+
+    @Override
+    public Future<JsonObject> getJson() {
+      return SharedConfigStore.this.getJson();
+    }
+
+    @Override
+    public boolean watch(Handler<Buffer> handler) {
+      watcher = handler;
+      return SharedConfigStore.this.watch(handler);
+    }
+
+    @Override
+    public Future<Void> close() {
+      Handler<Buffer> handler = watcher;
+      if (handler != null) {
+        watchers.remove(handler);
+      }
+      context.closeFuture().remove(closeHook);
+      return resource.close();
+    }
+
+    @Override
+    public String toString() {
+      return store.toString();
+    }
+  }
+}
@@ -18,10 +18,12 @@
 package io.vertx.config.impl.spi;
 
 import io.vertx.config.spi.ConfigStore;
+import io.vertx.config.spi.utils.FileLoader;
 import io.vertx.config.spi.utils.FileSet;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.json.JsonArray;
@@ -29,11 +31,18 @@ import io.vertx.core.json.JsonObject;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A configuration store loading a set of files from a directory.
+ * <p>
+ * The store keeps the attributes and the configuration of the files it has read: a scan of the directory only reads
+ * the files added or modified since the previous one, and the configuration is merged again only when a file has been
+ * added, modified or deleted. The files are read and processed by a {@link FileLoader}, a few at a time.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
  */
@@ -44,6 +53,16 @@ public class DirectoryConfigStore implements ConfigStore {
   private File path;
   private final List<FileSet> filesets = new ArrayList<>();
 
+  private final DirectoryIndex index;
+  private final WorkerExecutor executor;
+  private final FileLoader loader;
+  // The configuration of the files of each set, by relative path
+  private final List<Map<String, JsonObject>> configurations = new ArrayList<>();
+  // The merged configuration, updated by one refresh at a time
+  private volatile JsonObject merged;
+  // The refresh in progress, guarded by this
+  private Future<JsonObject> refreshing;
+
   public DirectoryConfigStore(Vertx vertx, JsonObject configuration) {
     this.vertx = (VertxInternal) vertx;
     String thePath = configuration.getString("path");
@@ -64,34 +83,92 @@ public class DirectoryConfigStore implements ConfigStore {
       JsonObject json = (JsonObject) o;
       FileSet set = new FileSet(vertx, this.path, json);
       this.filesets.add(set);
+      this.configurations.add(new ConcurrentHashMap<>());
     }
+    this.index = new DirectoryIndex(this.path, filesets);
+    int parallelism = configuration.getInteger("parallelism", FileLoader.DEFAULT_PARALLELISM);
+    String pool = configuration.getString("worker-pool");
+    this.executor = pool == null ? null : vertx.createSharedWorkerExecutor(pool, parallelism);
+    this.loader = new FileLoader(vertx, parallelism, executor);
   }
 
   @Override
   public Future<Buffer> get() {
-    return vertx.executeBlocking(() -> FileSet.traverse(path).stream().sorted().collect(Collectors.toList())).flatMap(files -> {
-      List<Future<JsonObject>> futures = new ArrayList<>();
-      for (FileSet set : filesets) {
-        Promise<JsonObject> promise = vertx.promise();
-        set.buildConfiguration(files, json -> {
-          if (json.failed()) {
-            promise.fail(json.cause());
-          } else {
-            promise.complete(json.result());
-          }
-        });
-        futures.add(promise.future());
+    return getJson().map(JsonObject::toBuffer);
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
+    Promise<JsonObject> promise;
+    synchronized (this) {
+      if (refreshing != null) {
+        return refreshing;
+      }
+      promise = vertx.promise();
+      refreshing = promise.future();
+    }
+    vertx.executeBlocking(index::scan).compose(this::refresh).onComplete(ar -> {
+      synchronized (this) {
+        refreshing = null;
+      }
+      promise.handle(ar);
+    });
+    return promise.future();
+  }
+
+  /**
+   * Reads the files added or modified since the previous scan, and merges the configuration again if needed.
+   */
+  private Future<JsonObject> refresh(DirectoryIndex.Scan scan) {
+    JsonObject current = merged;
+    if (current != null && !scan.modified) {
+      return vertx.getOrCreateContext().succeededFuture(current);
+    }
+    Set<String> paths = new HashSet<>(scan.paths);
+    List<List<String>> matching = FileSet.dispatch(filesets, scan.paths);
+    List<Future<JsonObject>> futures = new ArrayList<>();
+    for (int i = 0; i < filesets.size(); i++) {
+      FileSet set = filesets.get(i);
+      Map<String, JsonObject> configs = configurations.get(i);
+      configs.keySet().retainAll(paths);
+      for (String file : matching.get(i)) {
+        if (scan.changed.contains(file) || !configs.containsKey(file)) {
+          futures.add(read(set, file, configs));
+        }
       }
-      return Future.all(futures);
-    }).map(compositeFuture -> {
+    }
+    return Future.all(futures).map(v -> {
       JsonObject json = new JsonObject();
-      compositeFuture.<JsonObject>list().forEach(config -> json.mergeIn(config, true));
-      return json.toBuffer();
+      for (int i = 0; i < filesets.size(); i++) {
+        Map<String, JsonObject> configs = configurations.get(i);
+        JsonObject config = new JsonObject();
+        // The configurations are kept for the next merges
+        matching.get(i).forEach(file -> config.mergeIn(configs.get(file).copy(), true));
+        json.mergeIn(config, true);
+      }
+      merged = json;
+      return json;
     });
   }
 
+  private Future<JsonObject> read(FileSet set, String file, Map<String, JsonObject> configs) {
+    return loader.load(set, new File(path, file))
+      .andThen(ar -> {
+        if (ar.succeeded()) {
+          configs.put(file, ar.result());
+        } else {
+          configs.remove(file);
+          // Read again by the next scan
+          index.invalidate(file);
+        }
+      });
+  }
+
   @Override
   public Future<Void> close() {
+    if (executor != null) {
+      return executor.close();
+    }
     return vertx.getOrCreateContext().succeededFuture();
   }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl.spi;
+
+import io.vertx.config.spi.utils.FileSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The files of a directory belonging to a list of sets, with their attributes, used to detect the files added,
+ * modified or deleted since the previous scan without reading them. The directories which cannot contain a file of
+ * the sets are not traversed.
+ */
+class DirectoryIndex {
+
+  // A file modified less than this duration before a scan may be modified again with the same time and size,
+  // depending on the precision of the file system: it is reported as modified by the next scan too
+  private static final long RACY_DELAY = 2000;
+
+  private final File root;
+  private final List<FileSet> sets;
+  // The files found by the last scan, by path relative to the root. Guarded by this
+  private Map<String, Entry> entries = new HashMap<>();
+
+  DirectoryIndex(File root, List<FileSet> sets) {
+    this.root = root;
+    this.sets = sets;
+  }
+
+  /**
+   * Lists the files of the directory belonging to the sets, recursively, following the symbolic links except those
+   * creating a loop.
+   *
+   * @return the outcome of the scan
+   */
+  synchronized Scan scan() throws IOException {
+    long now = System.currentTimeMillis();
+    Map<String, Entry> found = new HashMap<>();
+    List<File> files = new ArrayList<>();
+    if (root.isDirectory()) {
+      Path start = root.toPath();
+      Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+            if (dir.equals(start)) {
+              return FileVisitResult.CONTINUE;
+            }
+            String relative = start.relativize(dir).toString();
+            for (FileSet set : sets) {
+              if (set.mayContain(relative)) {
+                return FileVisitResult.CONTINUE;
+              }
+            }
+            return FileVisitResult.SKIP_SUBTREE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            String relative = start.relativize(file).toString();
+            if (!attributes.isDirectory() && sets.stream().anyMatch(set -> set.matches(relative))) {
+              found.put(relative, new Entry(attributes, now));
+              files.add(file.toFile());
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException e) {
+            // Deleted during the scan, not readable, or a loop of symbolic links
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    }
+    Collections.sort(files);
+
+    Set<String> changed = new HashSet<>();
+    found.forEach((path, entry) -> {
+      Entry previous = entries.get(path);
+      if (previous == null || !previous.stable || !previous.sameAs(entry)) {
+        changed.add(path);
+      }
+    });
+    boolean modified = !changed.isEmpty() || !found.keySet().equals(entries.keySet());
+    entries = found;
+
+    List<String> paths = new ArrayList<>(files.size());
+    String prefix = root.getAbsolutePath();
+    for (File file : files) {
+      paths.add(file.getAbsolutePath().substring(prefix.length() + 1));
+    }
+    return new Scan(paths, changed, modified);
+  }
+
+  /**
+   * Forgets the given file, so it is reported as added by the next scan, for instance because it could not be read.
+   */
+  synchronized void invalidate(String path) {
+    entries.remove(path);
+  }
+
+  /**
+   * The outcome of a scan.
+   */
+  static class Scan {
+
+    // The relative paths of the files, sorted
+    final List<String> paths;
+    // The files added or modified since the previous scan
+    final Set<String> changed;
+    // Whether a file has been added, modified or deleted
+    final boolean modified;
+
+    private Scan(List<String> paths, Set<String> changed, boolean modified) {
+      this.paths = paths;
+      this.changed = changed;
+      this.modified = modified;
+    }
+  }
+
+  private static class Entry {
+
+    private final Object key;
+    private final long modified;
+    private final long size;
+    private final boolean stable;
+
+    private Entry(BasicFileAttributes attributes, long scanTime) {
+      this.key = attributes.fileKey();
+      this.modified = attributes.lastModifiedTime().toMillis();
+      this.size = attributes.size();
+      this.stable = scanTime - modified > RACY_DELAY;
+    }
+
+    private boolean sameAs(Entry other) {
+      return Objects.equals(key, other.key) && modified == other.modified && size == other.size;
+    }
+  }
+}
@@ -46,7 +46,7 @@ public class EnvVariablesConfigStore implements ConfigStore {
   private final boolean rawData;
   private final Set<String> keys;
   private final Supplier<Map<String, String>> getenv;
-  private final AtomicReference<Buffer> cached = new AtomicReference<>();
+  private final AtomicReference<JsonObject> cached = new AtomicReference<>();
 
   public EnvVariablesConfigStore(Vertx vertx, boolean rawData, JsonArray keys, Supplier<Map<String, String>> getenv) {
     this.vertx = (VertxInternal) vertx;
@@ -57,12 +57,21 @@ public class EnvVariablesConfigStore implements ConfigStore {
 
   @Override
   public Future<Buffer> get() {
-    Buffer value = cached.get();
+    return vertx.getOrCreateContext().succeededFuture(json().toBuffer());
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
+    return vertx.getOrCreateContext().succeededFuture(json());
+  }
+
+  private JsonObject json() {
+    JsonObject value = cached.get();
     if (value == null) {
-      value = all(getenv.get(), rawData, keys).toBuffer();
+      value = all(getenv.get(), rawData, keys);
       cached.set(value);
     }
-    return vertx.getOrCreateContext().succeededFuture(value);
+    return value;
   }
 
   private static JsonObject all(Map<String, String> env, boolean rawData, Set<String> keys) {
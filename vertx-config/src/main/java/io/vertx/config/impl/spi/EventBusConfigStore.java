@@ -17,13 +17,19 @@
 
 package io.vertx.config.impl.spi;
 
+import io.vertx.config.ConfigSnapshotCodec;
+import io.vertx.config.impl.BinaryJson;
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 import java.util.concurrent.atomic.AtomicReference;
@@ -31,28 +37,198 @@ import java.util.concurrent.atomic.AtomicReference;
 /**
  * An implementation of configuration store that receive the configuration from the event bus. It
  * listens on a given address and returns the last received configuration to the next enquiry.
+ * <p>
+ * The configuration is received as a {@link JsonObject}, possibly sent with the {@link ConfigSnapshotCodec}, or as a
+ * {@link Buffer}, either textual or encoded by {@link ConfigSnapshotCodec#encode(JsonObject)}.
+ * <p>
+ * The publisher can also send the changes only. A message with the {@link #PATCH_HEADER} header is a patch applied to
+ * the last configuration: a JSON Merge Patch when the header is {@code merge}, a JSON Patch when it is
+ * {@code json-patch}. The configurations and the patches can carry an increasing sequence number in the
+ * {@link #SEQUENCE_HEADER} header. The patches older than the last applied one are ignored, and when a patch does not
+ * follow the last applied one, or cannot be applied, the store ignores the next patches, numbered or not, and sends
+ * the last applied sequence number to the resync address, until the publisher sends the whole configuration again. A
+ * whole configuration is always applied, and its sequence number, if any, becomes the last applied one, so the
+ * publisher can restart its numbering.
+ * <p>
+ * The store notifies the retriever of each change, so the configuration is recomputed on reception rather than on the
+ * next scan. The notifications of the messages received in a row are merged, within {@code debounce} ms if
+ * configured. The store is still scanned, and each scan happening while waiting for the whole configuration sends the
+ * request again, in case the publisher missed it.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
  */
 public class EventBusConfigStore implements ConfigStore {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventBusConfigStore.class);
+
+  /**
+   * The header carrying the sequence number of a configuration or of a patch.
+   */
+  public static final String SEQUENCE_HEADER = "config-sequence";
+
+  /**
+   * The header marking a patch, {@code merge} or {@code json-patch}.
+   */
+  public static final String PATCH_HEADER = "config-patch";
+
+  // The minimum delay between two resync requests, while waiting for the whole configuration
+  private static final long RESYNC_INTERVAL = 1000;
+
   private final VertxInternal vertx;
+  private final String address;
+  private final String resyncAddress;
+  private final long debounce;
   private final MessageConsumer<Object> consumer;
-  private final AtomicReference<Buffer> last = new AtomicReference<>();
+  // Either a JsonObject or a Buffer
+  private final AtomicReference<Object> last = new AtomicReference<>();
+
+  // The context of the consumer
+  private final ContextInternal context;
+
+  // Only accessed by the consumer, on its context, resyncing is also read by the scans
+  private long sequence = -1;
+  private volatile boolean resyncing;
+  private long lastResync;
+  private boolean notifying;
+
+  private volatile Handler<Buffer> watcher;
 
   public EventBusConfigStore(Vertx vertx, String address) {
+    this(vertx, address, address + ".resync", 0);
+  }
+
+  public EventBusConfigStore(Vertx vertx, String address, String resyncAddress, long debounce) {
     this.vertx = (VertxInternal) vertx;
+    this.address = address;
+    this.resyncAddress = resyncAddress;
+    this.debounce = debounce;
+    // The configurations sent with the codec from other nodes are decoded on reception
+    ConfigSnapshotCodec.register(vertx);
+    context = this.vertx.getOrCreateContext();
     consumer = vertx.eventBus().consumer(address);
     consumer.handler(message -> {
-      Object body = message.body();
-      if (body instanceof JsonObject) {
-        last.set(((JsonObject) body).toBuffer());
-      } else if (body instanceof Buffer) {
-        last.set((Buffer) body);
+      try {
+        receive(message.body(), message.headers().get(SEQUENCE_HEADER), message.headers().get(PATCH_HEADER));
+      } catch (RuntimeException e) {
+        LOGGER.error("Invalid configuration received on " + address, e);
+        if (message.headers().contains(PATCH_HEADER)) {
+          resync();
+        }
       }
     });
   }
 
+  private void receive(Object body, String sequenceHeader, String patch) {
+    long received = sequenceHeader == null ? -1 : Long.parseLong(sequenceHeader);
+    if (patch == null) {
+      // Authoritative, even with a lower sequence number, as after a restart of the publisher
+      Object value = decode(body);
+      if (value != null) {
+        last.set(value);
+        sequence = received;
+        resyncing = false;
+        changed();
+      }
+      return;
+    }
+    if (received >= 0 && sequence >= 0 && received <= sequence) {
+      // Already applied
+      return;
+    }
+    if (resyncing || (received >= 0 && received != sequence + 1)) {
+      // Would be applied to an outdated configuration
+      resync();
+      return;
+    }
+    JsonObject current = json(last.get());
+    JsonObject patched;
+    if ("merge".equals(patch)) {
+      Object value = decode(body);
+      if (value == null) {
+        throw new IllegalArgumentException("Invalid merge patch " + body);
+      }
+      patched = JsonPatches.merge(current, json(value));
+    } else if ("json-patch".equals(patch)) {
+      patched = JsonPatches.apply(current, body instanceof JsonArray ? (JsonArray) body : new JsonArray((Buffer) body));
+    } else {
+      throw new IllegalArgumentException("Unknown patch type " + patch);
+    }
+    last.set(patched);
+    sequence = received;
+    changed();
+  }
+
+  /**
+   * Notifies the retriever, unless a notification is already pending.
+   */
+  private void changed() {
+    Handler<Buffer> handler = watcher;
+    if (handler == null || notifying) {
+      return;
+    }
+    notifying = true;
+    Handler<Void> notification = v -> {
+      notifying = false;
+      // Read with getJson, not encoded
+      handler.handle(null);
+    };
+    if (debounce > 0) {
+      context.setTimer(debounce, l -> notification.handle(null));
+    } else {
+      context.runOnContext(notification);
+    }
+  }
+
+  @Override
+  public boolean watch(Handler<Buffer> handler) {
+    watcher = handler;
+    // Also scanned, to request the whole configuration again while it is awaited
+    return false;
+  }
+
+  /**
+   * @return the configuration of the given body, {@code null} if not supported
+   */
+  private static Object decode(Object body) {
+    if (body instanceof Buffer && BinaryJson.isBinary((Buffer) body)) {
+      return BinaryJson.decode((Buffer) body);
+    }
+    return body instanceof JsonObject || body instanceof Buffer ? body : null;
+  }
+
+  private static JsonObject json(Object value) {
+    if (value == null) {
+      return new JsonObject();
+    }
+    return value instanceof JsonObject ? (JsonObject) value : new JsonObject((Buffer) value);
+  }
+
+  /**
+   * Asks the publisher for the whole configuration again if it is still awaited, as the publisher may have missed the
+   * previous request.
+   */
+  private void retryResync() {
+    if (resyncing) {
+      context.runOnContext(v -> {
+        if (resyncing) {
+          resync();
+        }
+      });
+    }
+  }
+
+  /**
+   * Asks the publisher for the whole configuration, ignoring the patches until received.
+   */
+  private void resync() {
+    resyncing = true;
+    long now = System.currentTimeMillis();
+    if (now - lastResync >= RESYNC_INTERVAL) {
+      lastResync = now;
+      vertx.eventBus().send(resyncAddress, new JsonObject().put("address", address).put("sequence", sequence));
+    }
+  }
+
   @Override
   public Future<Void> close() {
     return consumer.unregister();
@@ -60,8 +236,23 @@ public class EventBusConfigStore implements ConfigStore {
 
   @Override
   public Future<Buffer> get() {
-    Buffer buffer = last.get();
+    retryResync();
+    Object value = last.get();
     ContextInternal context = vertx.getOrCreateContext();
-    return context.succeededFuture(buffer != null ? buffer : Buffer.buffer("{}"));
+    if (value instanceof JsonObject) {
+      return context.succeededFuture(((JsonObject) value).toBuffer());
+    }
+    return context.succeededFuture(value != null ? (Buffer) value : Buffer.buffer("{}"));
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
+    retryResync();
+    Object value = last.get();
+    if (value instanceof Buffer) {
+      // Let the processor parse it
+      return null;
+    }
+    return vertx.getOrCreateContext().succeededFuture(value != null ? (JsonObject) value : new JsonObject());
   }
 }
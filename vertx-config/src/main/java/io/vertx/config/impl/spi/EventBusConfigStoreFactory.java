@@ -39,6 +39,7 @@ public class EventBusConfigStoreFactory implements ConfigStoreFactory {
   public ConfigStore create(Vertx vertx, JsonObject configuration) {
     String address = configuration.getString("address");
     Objects.requireNonNull(address);
-    return new EventBusConfigStore(vertx, address);
+    return new EventBusConfigStore(vertx, address, configuration.getString("resync-address", address + ".resync"),
+      configuration.getLong("debounce", 0L));
   }
 }
@@ -19,19 +19,56 @@ package io.vertx.config.impl.spi;
 
 import io.vertx.config.spi.ConfigStore;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystemException;
 import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
 import io.vertx.core.json.JsonObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * A configuration store loading a file.
+ * <p>
+ * The file is read again only when its identity (inode), its modification time or its size changed since the last
+ * read, otherwise the previously read content is returned. Unless disabled with {@code watch}, the directory of the
+ * file, and the directory of its target when it is a symbolic link, are watched, so a change is notified immediately
+ * instead of on the next scan. This includes the swap of the {@code ..data} link of the Kubernetes ConfigMaps. The file
+ * is still scanned, as the network file systems do not report the changes made by the other hosts: the scans only
+ * check the attributes of the file.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
  */
 public class FileConfigStore implements ConfigStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileConfigStore.class);
+
+  // A file modified less than this duration before being read may be modified again with the same time and size,
+  // depending on the precision of the file system: its content is read again on the next call
+  private static final long RACY_DELAY = 2000;
+
   private final VertxInternal vertx;
   private final String path;
+  private final boolean watch;
+
+  // The last read content and the attributes of the file when read, guarded by this
+  private Buffer content;
+  private Object fileKey;
+  private long modified;
+  private long size;
+  private long readTime;
+
+  private FileWatcher.Watch watcher;
 
   public FileConfigStore(Vertx vertx, JsonObject configuration) {
     this.vertx = (VertxInternal) vertx;
@@ -39,15 +76,80 @@ public class FileConfigStore implements ConfigStore {
     if (this.path == null) {
       throw new IllegalArgumentException("The `path` configuration is required.");
     }
+    this.watch = configuration.getBoolean("watch", true);
   }
 
   @Override
   public Future<Buffer> get() {
-    return vertx.fileSystem().readFile(path);
+    return vertx.executeBlocking(this::read);
   }
 
+  private synchronized Buffer read() {
+    Path file = vertx.fileResolver().resolve(path).toPath();
+    try {
+      long now = System.currentTimeMillis();
+      // Follows the symbolic links, so a new target is detected
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      long lastModified = attributes.lastModifiedTime().toMillis();
+      if (content != null && Objects.equals(fileKey, attributes.fileKey()) && modified == lastModified
+        && size == attributes.size() && readTime - modified > RACY_DELAY) {
+        return content;
+      }
+      Buffer buffer = Buffer.buffer(Files.readAllBytes(file));
+      content = buffer;
+      fileKey = attributes.fileKey();
+      modified = lastModified;
+      size = attributes.size();
+      readTime = now;
+      return buffer;
+    } catch (IOException e) {
+      content = null;
+      throw new FileSystemException("Unable to read file at path '" + path + "'", e);
+    }
+  }
+
+  /**
+   * Watches the directory of the file, and notifies its changes. The file is still scanned, so this method returns
+   * {@code false}.
+   */
   @Override
-  public Future<Void> close() {
+  public synchronized boolean watch(Handler<Buffer> handler) {
+    if (!watch) {
+      return false;
+    }
+    try {
+      // Read again on change, through the attributes check
+      watcher = FileWatcher.watch(vertx, this::directories, () -> handler.handle(null));
+    } catch (IOException | UnsupportedOperationException e) {
+      LOGGER.warn("Unable to watch " + path + ", the file is only scanned", e);
+    }
+    return false;
+  }
+
+  private Set<Path> directories() {
+    Set<Path> directories = new LinkedHashSet<>();
+    File resolved = vertx.fileResolver().resolve(path);
+    Path file = resolved.toPath().toAbsolutePath();
+    if (file.getParent() != null) {
+      directories.add(file.getParent());
+    }
+    try {
+      Path parent = file.toRealPath().getParent();
+      if (parent != null) {
+        directories.add(parent);
+      }
+    } catch (IOException e) {
+      // Missing, its directory is still watched
+    }
+    return directories;
+  }
+
+  @Override
+  public synchronized Future<Void> close() {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
     return vertx.getOrCreateContext().succeededFuture();
   }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl.spi;
+
+import io.vertx.core.Closeable;
+import io.vertx.core.Future;
+import io.vertx.core.internal.CloseableResource;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Watches directories with a {@link WatchService}, and calls the listeners of a directory when one of its entries is
+ * created, deleted or modified.
+ * <p>
+ * A single watcher, and so a single thread, is shared by the stores of a Vert.x instance: it is created with the first
+ * {@link Watch} and stopped once all of them are closed, a watch being closed with the verticle creating it. The events received in a row are merged into a single call,
+ * so an update made of several operations, such as the swap of the {@code ..data} symbolic link of a Kubernetes
+ * ConfigMap, is notified once. The directories of a watch are computed again after each change, as the update may
+ * have replaced them. The listeners are called from the thread of the watcher.
+ */
+class FileWatcher implements io.vertx.core.internal.Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileWatcher.class);
+
+  private static final String WATCHERS = "__vertx.config.file-watchers";
+
+  // The delay within which the events are merged
+  private static final long SETTLE_DELAY = 20;
+
+  private final WatchService service;
+  // The registered directories and the watches interested in each of them, guarded by this
+  private final Map<Path, WatchKey> keys = new HashMap<>();
+  private final Map<Path, Set<Watch>> watches = new HashMap<>();
+  private volatile boolean closed;
+
+  private FileWatcher() throws IOException {
+    this.service = FileSystems.getDefault().newWatchService();
+    Thread thread = new Thread(this::run, "vertx-config-file-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Starts watching the given directories, with the watcher of the given Vert.x instance.
+   *
+   * @param vertx       the Vert.x instance
+   * @param directories the directories to watch, called again after each change
+   * @param listener    the listener
+   * @return the watch, to be closed when done
+   * @throws IOException if none of the directories can be watched
+   */
+  static Watch watch(VertxInternal vertx, Supplier<Set<Path>> directories, Runnable listener) throws IOException {
+    CloseableResource<FileWatcher> resource;
+    try {
+      resource = vertx.createSharedResource(WATCHERS, "default", () -> {
+        try {
+          return new FileWatcher();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    FileWatcher watcher = resource.get();
+    Watch watch = watcher.new Watch(directories, listener, (ContextInternal) vertx.getOrCreateContext(), resource);
+    if (watcher.register(watch) == 0) {
+      watch.close();
+      throw new IOException("No directory to watch");
+    }
+    return watch;
+  }
+
+  /**
+   * Registers the directories of the given watch not watched yet, and cancels the ones no longer watched.
+   *
+   * @return the number of directories watched for the given watch
+   */
+  private synchronized int register(Watch watch) {
+    Set<Path> watched = watch.closed ? new HashSet<>() : watch.directories.get();
+    for (Path directory : watch.watched) {
+      if (!watched.contains(directory)) {
+        release(directory, watch);
+      }
+    }
+    watch.watched.retainAll(watched);
+    for (Path directory : watched) {
+      WatchKey key = keys.get(directory);
+      if (key == null || !key.isValid()) {
+        try {
+          keys.put(directory, directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+        } catch (IOException e) {
+          // Missing, or not a directory anymore
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Unable to watch " + directory, e);
+          }
+          keys.remove(directory);
+          release(directory, watch);
+          watch.watched.remove(directory);
+          continue;
+        }
+      }
+      watches.computeIfAbsent(directory, d -> new HashSet<>()).add(watch);
+      watch.watched.add(directory);
+    }
+    return watch.watched.size();
+  }
+
+  private void release(Path directory, Watch watch) {
+    Set<Watch> interested = watches.get(directory);
+    if (interested != null && interested.remove(watch) && interested.isEmpty()) {
+      watches.remove(directory);
+      WatchKey key = keys.remove(directory);
+      if (key != null) {
+        key.cancel();
+      }
+    }
+  }
+
+  private void run() {
+    while (!closed) {
+      try {
+        Set<Path> changed = new HashSet<>();
+        WatchKey key = service.take();
+        do {
+          key.pollEvents();
+          key.reset();
+          changed.add((Path) key.watchable());
+        } while ((key = service.poll(SETTLE_DELAY, TimeUnit.MILLISECONDS)) != null);
+        Set<Watch> notified = new LinkedHashSet<>();
+        synchronized (this) {
+          for (Path directory : changed) {
+            notified.addAll(watches.getOrDefault(directory, new HashSet<>()));
+          }
+        }
+        for (Watch watch : notified) {
+          notify(watch);
+        }
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+    }
+  }
+
+  private void notify(Watch watch) {
+    try {
+      register(watch);
+      if (!watch.closed) {
+        watch.listener.run();
+      }
+    } catch (RuntimeException e) {
+      LOGGER.error("Error while notifying a change", e);
+    }
+  }
+
+  @Override
+  public Future<Void> shutdown(Duration timeout) {
+    closed = true;
+    try {
+      service.close();
+    } catch (IOException e) {
+      // Ignored
+    }
+    return Future.succeededFuture();
+  }
+
+  /**
+   * The directories watched for a listener.
+   */
+  class Watch {
+
+    private final Supplier<Set<Path>> directories;
+    private final Runnable listener;
+    private final ContextInternal context;
+    private final CloseableResource<FileWatcher> resource;
+    private final Closeable closeHook = completion -> {
+      close();
+      completion.succeed();
+    };
+    // Guarded by the watcher
+    private final Set<Path> watched = new HashSet<>();
+    private volatile boolean closed;
+
+    private Watch(Supplier<Set<Path>> directories, Runnable listener, ContextInternal context,
+                  CloseableResource<FileWatcher> resource) {
+      this.directories = directories;
+      this.listener = listener;
+      this.context = context;
+      this.resource = resource;
+      // Released when the verticle of the store is undeployed without closing it
+      context.closeFuture().add(closeHook);
+    }
+
+    /**
+     * Stops watching the directories, and stops the watcher if no other watch uses it.
+     */
+    void close() {
+      closed = true;
+      register(this);
+      context.closeFuture().remove(closeHook);
+      resource.close();
+    }
+  }
+}
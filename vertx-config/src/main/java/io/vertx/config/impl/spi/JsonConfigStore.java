@@ -52,6 +52,18 @@ public class JsonConfigStore implements ConfigStore {
     return promise.future();
   }
 
+  @Override
+  public Future<JsonObject> getJson() {
+    Promise<JsonObject> promise = vertx.promise();
+    if (config == null) {
+      promise.fail("no configuration");
+    } else {
+      // The caller may modify the returned object, the configuration belongs to the application
+      promise.complete(config.copy());
+    }
+    return promise.future();
+  }
+
   @Override
   public Future<Void> close() {
     return vertx.getOrCreateContext().succeededFuture();
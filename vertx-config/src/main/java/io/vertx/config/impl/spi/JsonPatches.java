@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.impl.spi;
+
+import io.vertx.config.impl.PathListeners;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Applies JSON Merge Patches (RFC 7386) and JSON Patches (RFC 6902) to a configuration.
+ * <p>
+ * The patched configuration is a new object: the objects and arrays on the paths modified by the patch are copied,
+ * and the others are shared with the original configuration, which is left untouched. So applying a small patch to a
+ * large configuration is cheap, and a patch failing halfway has no effect.
+ */
+final class JsonPatches {
+
+  private JsonPatches() {
+    // Avoid direct instantiation
+  }
+
+  /**
+   * Applies a JSON Merge Patch.
+   *
+   * @return the patched configuration
+   * @throws IllegalArgumentException if the patch does not result in a JSON object
+   */
+  static JsonObject merge(JsonObject target, JsonObject patch) {
+    return (JsonObject) mergeValue(target, patch);
+  }
+
+  private static Object mergeValue(Object target, Object patch) {
+    if (!(patch instanceof JsonObject)) {
+      return patch;
+    }
+    JsonObject result = target instanceof JsonObject ? copy((JsonObject) target) : new JsonObject();
+    for (String key : ((JsonObject) patch).fieldNames()) {
+      Object value = ((JsonObject) patch).getValue(key);
+      if (value == null) {
+        result.remove(key);
+      } else {
+        result.put(key, mergeValue(result.getValue(key), value));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Applies a JSON Patch, all its operations or none of them.
+   *
+   * @return the patched configuration
+   * @throws IllegalArgumentException if an operation is invalid, cannot be applied or its test fails
+   */
+  static JsonObject apply(JsonObject target, JsonArray patch) {
+    Object document = target;
+    for (int i = 0; i < patch.size(); i++) {
+      Object operation = patch.getValue(i);
+      if (!(operation instanceof JsonObject)) {
+        throw new IllegalArgumentException("Invalid operation " + operation);
+      }
+      document = apply(document, (JsonObject) operation);
+    }
+    if (!(document instanceof JsonObject)) {
+      throw new IllegalArgumentException("The patched configuration is not a JSON object");
+    }
+    return (JsonObject) document;
+  }
+
+  private static Object apply(Object document, JsonObject operation) {
+    String op = operation.getString("op");
+    List<String> path = pointer(operation.getString("path"));
+    if (op == null) {
+      throw new IllegalArgumentException("Missing operation in " + operation);
+    }
+    switch (op) {
+      case "add":
+        return add(document, path, value(operation));
+      case "remove":
+        return remove(document, path);
+      case "replace":
+        get(document, path);
+        return path.isEmpty() ? value(operation) : update(document, path, 0, (container, key) -> {
+          if (container instanceof JsonObject) {
+            ((JsonObject) container).put(key, value(operation));
+          } else {
+            ((JsonArray) container).set(index(container, key, false), value(operation));
+          }
+        });
+      case "move":
+        List<String> from = pointer(operation.getString("from"));
+        if (path.size() > from.size() && path.subList(0, from.size()).equals(from)) {
+          throw new IllegalArgumentException("Cannot move " + from + " into one of its children");
+        }
+        Object moved = get(document, from);
+        return add(remove(document, from), path, moved);
+      case "copy":
+        return add(document, path, get(document, pointer(operation.getString("from"))));
+      case "test":
+        if (!operation.containsKey("value") || !equal(get(document, path), operation.getValue("value"))) {
+          throw new IllegalArgumentException("Test failed: " + operation);
+        }
+        return document;
+      default:
+        throw new IllegalArgumentException("Unknown operation " + op);
+    }
+  }
+
+  private static Object value(JsonObject operation) {
+    if (!operation.containsKey("value")) {
+      throw new IllegalArgumentException("Missing value in " + operation);
+    }
+    return operation.getValue("value");
+  }
+
+  private static Object add(Object document, List<String> path, Object value) {
+    if (path.isEmpty()) {
+      return value;
+    }
+    return update(document, path, 0, (container, key) -> insert(container, key, value));
+  }
+
+  private static Object remove(Object document, List<String> path) {
+    if (path.isEmpty()) {
+      throw new IllegalArgumentException("Cannot remove the whole configuration");
+    }
+    return update(document, path, 0, JsonPatches::remove);
+  }
+
+  /**
+   * Copies the containers on the given path, and applies the operation to the copy of the last one.
+   */
+  private static Object update(Object node, List<String> path, int index, Operation operation) {
+    Object copy = node instanceof JsonObject ? copy((JsonObject) node) : node instanceof JsonArray ?
+      copy((JsonArray) node) : null;
+    if (copy == null) {
+      throw new IllegalArgumentException("Not a container at " + path.subList(0, index));
+    }
+    String key = path.get(index);
+    if (index == path.size() - 1) {
+      operation.apply(copy, key);
+    } else {
+      Object child = update(child(node, key), path, index + 1, operation);
+      if (copy instanceof JsonObject) {
+        ((JsonObject) copy).put(key, child);
+      } else {
+        ((JsonArray) copy).set(index(copy, key, false), child);
+      }
+    }
+    return copy;
+  }
+
+  private static void insert(Object container, String key, Object value) {
+    if (container instanceof JsonObject) {
+      ((JsonObject) container).put(key, value);
+    } else if ("-".equals(key)) {
+      ((JsonArray) container).add(value);
+    } else {
+      ((JsonArray) container).add(index(container, key, true), value);
+    }
+  }
+
+  private static void remove(Object container, String key) {
+    if (container instanceof JsonObject) {
+      if (!((JsonObject) container).containsKey(key)) {
+        throw new IllegalArgumentException("No member " + key);
+      }
+      ((JsonObject) container).remove(key);
+    } else {
+      ((JsonArray) container).remove(index(container, key, false));
+    }
+  }
+
+  private static Object get(Object document, List<String> path) {
+    Object node = document;
+    for (String key : path) {
+      node = child(node, key);
+    }
+    return node;
+  }
+
+  private static Object child(Object node, String key) {
+    if (node instanceof JsonObject) {
+      if (!((JsonObject) node).containsKey(key)) {
+        throw new IllegalArgumentException("No member " + key);
+      }
+      return ((JsonObject) node).getValue(key);
+    }
+    if (node instanceof JsonArray) {
+      return ((JsonArray) node).getValue(index(node, key, false));
+    }
+    throw new IllegalArgumentException("Not a container at " + key);
+  }
+
+  private static int index(Object array, String key, boolean insertion) {
+    int size = ((JsonArray) array).size();
+    if (key.isEmpty() || key.length() > 9 || (key.length() > 1 && key.charAt(0) == '0')
+      || !key.chars().allMatch(Character::isDigit)) {
+      throw new IllegalArgumentException("Invalid array index " + key);
+    }
+    int index = Integer.parseInt(key);
+    if (index > size || (index == size && !insertion)) {
+      throw new IllegalArgumentException("Array index out of bounds " + key);
+    }
+    return index;
+  }
+
+  /**
+   * Parses a JSON pointer (RFC 6901) into its reference tokens.
+   */
+  private static List<String> pointer(String pointer) {
+    if (pointer == null) {
+      throw new IllegalArgumentException("Missing path");
+    }
+    return PathListeners.parse(pointer);
+  }
+
+  private static boolean equal(Object a, Object b) {
+    if (a instanceof Number && b instanceof Number) {
+      return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+    }
+    return a == null ? b == null : a.equals(b);
+  }
+
+  private static JsonObject copy(JsonObject json) {
+    return new JsonObject(new LinkedHashMap<>(json.getMap()));
+  }
+
+  private static JsonArray copy(JsonArray array) {
+    return new JsonArray().addAll(array);
+  }
+
+  private interface Operation {
+    void apply(Object container, String key);
+  }
+}
@@ -38,7 +38,7 @@ public class SystemPropertiesConfigStore implements ConfigStore {
   private final Boolean rawData;
   private final Boolean hierarchical;
 
-  private AtomicReference<Buffer> cached = new AtomicReference<>();
+  private AtomicReference<JsonObject> cached = new AtomicReference<>();
 
   public SystemPropertiesConfigStore(Vertx vertx, JsonObject configuration) {
     this.vertx = (VertxInternal) vertx;
@@ -49,14 +49,23 @@ public class SystemPropertiesConfigStore implements ConfigStore {
 
   @Override
   public Future<Buffer> get() {
-    Buffer value = cached.get();
+    return vertx.getOrCreateContext().succeededFuture(json().toBuffer());
+  }
+
+  @Override
+  public Future<JsonObject> getJson() {
+    return vertx.getOrCreateContext().succeededFuture(json());
+  }
+
+  private JsonObject json() {
+    JsonObject value = cached.get();
     if (value == null) {
-      value = JsonObjectHelper.from(System.getProperties(), rawData, hierarchical).toBuffer();
+      value = JsonObjectHelper.from(System.getProperties(), rawData, hierarchical);
       if (cache) {
         cached.set(value);
       }
     }
-    return vertx.getOrCreateContext().succeededFuture(value);
+    return value;
   }
 
   @Override
@@ -18,7 +18,9 @@
 package io.vertx.config.spi;
 
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
 
 /**
  * Defines a configuration store.
@@ -34,6 +36,41 @@ public interface ConfigStore {
    */
   Future<Buffer> get();
 
+  /**
+   * Retrieves the configuration of this store as a JSON object. Stores building their configuration as a
+   * {@link JsonObject} can implement this method to avoid encoding it to a buffer that is immediately parsed
+   * again. It is used instead of {@link #get()} when the format of the store is {@code json}.
+   * <p>
+   * The retriever does not modify the returned object. This method can return {@code null} when the configuration
+   * is not available as a JSON object, in which case {@link #get()} is used. The default implementation always
+   * returns {@code null}.
+   *
+   * @return a {@code Future} of the asynchronous result, or {@code null}.
+   */
+  default Future<JsonObject> getJson() {
+    return null;
+  }
+
+  /**
+   * Registers a handler notified when the content of this store changes. Stores able to detect changes by
+   * themselves (file system watchers, push-based or long-polling backends...) call the handler with the new
+   * content. The retriever then recomputes the configuration without waiting for the next scan and stops
+   * polling this store.
+   * <p>
+   * The handler can also be called with {@code null} when the new content is to be read with {@link #getJson()} or
+   * {@link #get()}, which avoids encoding a configuration available as a {@link JsonObject}.
+   * <p>
+   * The handler may be called from any thread. The default implementation does not support change
+   * notifications and returns {@code false}, in which case the store is polled periodically. A store whose
+   * notifications may be missed can also call the handler and return {@code false}, to be polled as well.
+   *
+   * @param handler the handler receiving the new content, must not be {@code null}
+   * @return {@code true} if the store notifies changes, {@code false} otherwise
+   */
+  default boolean watch(Handler<Buffer> handler) {
+    return false;
+  }
+
   /**
    * Closes the configuration store.
    *
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.spi.utils;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystemException;
+import io.vertx.core.json.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+
+/**
+ * Loads the configuration of files belonging to {@link FileSet}s, with a bounded number of files read or processed
+ * at a time, so that loading many files does not flood the worker pool. The files are read by unordered blocking
+ * tasks, on a dedicated worker executor if any.
+ */
+public class FileLoader {
+
+  /**
+   * The default number of files loaded at a time.
+   */
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  private final Vertx vertx;
+  private final int parallelism;
+  private final WorkerExecutor executor;
+
+  // The loads waiting for a slot and the number of loads in progress, guarded by this
+  private final Queue<Runnable> waiting = new ArrayDeque<>();
+  private int running;
+
+  /**
+   * Creates a loader reading the files on the worker pool of Vert.x.
+   *
+   * @param vertx       the Vert.x instance
+   * @param parallelism the maximum number of files loaded at a time
+   */
+  public FileLoader(Vertx vertx, int parallelism) {
+    this(vertx, parallelism, null);
+  }
+
+  /**
+   * Creates a loader.
+   *
+   * @param vertx       the Vert.x instance
+   * @param parallelism the maximum number of files loaded at a time
+   * @param executor    the executor reading the files, {@code null} to use the worker pool of Vert.x
+   */
+  public FileLoader(Vertx vertx, int parallelism, WorkerExecutor executor) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be positive");
+    }
+    this.vertx = vertx;
+    this.parallelism = parallelism;
+    this.executor = executor;
+  }
+
+  /**
+   * Reads a file and computes its configuration using the format of the given set. The load starts once fewer
+   * files than the parallelism are loaded.
+   *
+   * @param set  the set of the file
+   * @param file the file
+   * @return a future notified with the configuration of the file
+   */
+  public Future<JsonObject> load(FileSet set, File file) {
+    Promise<JsonObject> promise = Promise.promise();
+    Runnable load = () -> read(file).compose(set::process).onComplete(ar -> {
+      release();
+      promise.handle(ar);
+    });
+    boolean start;
+    synchronized (this) {
+      start = running < parallelism;
+      if (start) {
+        running++;
+      } else {
+        waiting.add(load);
+      }
+    }
+    if (start) {
+      load.run();
+    }
+    return promise.future();
+  }
+
+  private Future<Buffer> read(File file) {
+    Callable<Buffer> read = () -> {
+      try {
+        return Buffer.buffer(Files.readAllBytes(file.toPath()));
+      } catch (IOException e) {
+        throw new FileSystemException("Unable to read file at path '" + file.getAbsolutePath() + "'", e);
+      }
+    };
+    return executor != null ? executor.executeBlocking(read, false) : vertx.executeBlocking(read, false);
+  }
+
+  private void release() {
+    Runnable next;
+    synchronized (this) {
+      next = waiting.poll();
+      if (next == null) {
+        running--;
+      }
+    }
+    if (next != null) {
+      next.run();
+    }
+  }
+}
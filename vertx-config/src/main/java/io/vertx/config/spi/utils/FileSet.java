@@ -19,15 +19,26 @@ package io.vertx.config.spi.utils;
 
 import io.vertx.config.spi.ConfigProcessor;
 import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.internal.logging.Logger;
 import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Utility class to manage file set selected using a pattern.
@@ -39,6 +50,8 @@ public class FileSet {
   private final static Logger LOGGER = LoggerFactory.getLogger(FileSet.class);
 
   private final String pattern;
+  private final GlobPattern glob;
+  private final List<GlobPattern> excludes;
   private final ConfigProcessor processor;
   private final File root;
   private final Vertx vertx;
@@ -59,6 +72,23 @@ public class FileSet {
     if (this.pattern == null) {
       throw new IllegalArgumentException("Each file set needs to contain a `pattern`");
     }
+    String syntax = set.getString("syntax", "wildcard");
+    if (!syntax.equals("wildcard") && !syntax.equals("glob")) {
+      throw new IllegalArgumentException("Unknown pattern syntax `" + syntax + "`, supported syntaxes are `wildcard` " +
+        "and `glob`");
+    }
+    boolean globSyntax = syntax.equals("glob");
+    this.glob = new GlobPattern(pattern, globSyntax);
+    this.excludes = new ArrayList<>();
+    JsonArray exclude = set.getJsonArray("exclude");
+    if (exclude != null) {
+      for (Object o : exclude) {
+        if (!(o instanceof String)) {
+          throw new IllegalArgumentException("The `exclude` element of a file set must contain patterns");
+        }
+        this.excludes.add(new GlobPattern((String) o, globSyntax));
+      }
+    }
     this.rawData = set.getBoolean("raw-data", false);
     this.hierarchical = set.getBoolean("hierarchical", false);
     String format = set.getString("format", "json");
@@ -69,8 +99,81 @@ public class FileSet {
     }
   }
 
-  private boolean matches(String path) {
-    return match(pattern, path, false);
+  /**
+   * Checks whether the file at the given path, relative to the root, belongs to this set.
+   *
+   * @param path the relative path
+   * @return {@code true} if the file matches the pattern of the set
+   */
+  public boolean matches(String path) {
+    return glob.matches(path) && !excluded(path);
+  }
+
+  /**
+   * Checks whether the given directory, relative to the root, may contain files belonging to this set. The
+   * directories which cannot are not traversed.
+   *
+   * @param directory the relative path of the directory
+   * @return {@code false} if no file of the directory, nor of its sub-directories, can belong to this set
+   */
+  public boolean mayContain(String directory) {
+    return glob.mayContain(directory) && !excluded(directory);
+  }
+
+  /**
+   * @return whether the path, or one of its parent directories, matches an exclusion pattern
+   */
+  private boolean excluded(String path) {
+    if (excludes.isEmpty()) {
+      return false;
+    }
+    for (int i = path.indexOf(File.separatorChar); i >= 0; i = path.indexOf(File.separatorChar, i + 1)) {
+      String parent = path.substring(0, i);
+      for (GlobPattern exclude : excludes) {
+        if (exclude.matches(parent)) {
+          return true;
+        }
+      }
+    }
+    for (GlobPattern exclude : excludes) {
+      if (exclude.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Dispatches files to the sets they belong to, in a single pass over the files.
+   *
+   * @param sets  the sets
+   * @param paths the paths of the files, relative to the root of the sets
+   * @return for each set, in order, the paths of its files, in the order of the given paths
+   */
+  public static List<List<String>> dispatch(List<FileSet> sets, List<String> paths) {
+    List<List<String>> dispatched = new ArrayList<>(sets.size());
+    for (int i = 0; i < sets.size(); i++) {
+      dispatched.add(new ArrayList<>());
+    }
+    for (String path : paths) {
+      for (int i = 0; i < sets.size(); i++) {
+        if (sets.get(i).matches(path)) {
+          dispatched.get(i).add(path);
+        }
+      }
+    }
+    return dispatched;
+  }
+
+  /**
+   * Computes the configuration of a file belonging to this set, using the format of the set.
+   *
+   * @param content the content of the file
+   * @return a future notified with the configuration
+   */
+  public Future<JsonObject> process(Buffer content) {
+    return processor.process(vertx, new JsonObject().put("raw-data", rawData)
+                                                    .put("hierarchical", hierarchical), content);
   }
 
   /**
@@ -236,6 +339,19 @@ public class FileSet {
    * @param handler the handler called with the computed configuration
    */
   public void buildConfiguration(List<File> files, Handler<AsyncResult<JsonObject>> handler) {
+    buildConfiguration(files, new FileLoader(vertx, FileLoader.DEFAULT_PARALLELISM), handler);
+  }
+
+  /**
+   * Iterates over the given set of files, and for each matching file, computes the resulting configuration, using
+   * the given loader to bound the number of files loaded at a time. The given handler is called with the merged
+   * configuration, the configurations of the files being merged in the order of the list.
+   *
+   * @param files   the list of files
+   * @param loader  the loader reading and processing the files
+   * @param handler the handler called with the computed configuration
+   */
+  public void buildConfiguration(List<File> files, FileLoader loader, Handler<AsyncResult<JsonObject>> handler) {
     List<Future<JsonObject>> futures = new ArrayList<>();
 
     files.stream()
@@ -253,24 +369,7 @@ public class FileSet {
       .filter(Objects::nonNull)
       .filter(this::matches)
       .map(s -> new File(root, s))
-      .forEach(file -> {
-        Promise<JsonObject> promise = Promise.promise();
-        futures.add(promise.future());
-        try {
-          vertx.fileSystem().readFile(file.getAbsolutePath()).onComplete(buffer -> {
-              if (buffer.failed()) {
-                promise.fail(buffer.cause());
-              } else {
-                processor.process(vertx, new JsonObject().put("raw-data", rawData)
-                                                         .put("hierarchical", hierarchical), buffer.result())
-                         .onComplete(promise);
-              }
-            });
-        } catch (RejectedExecutionException e) {
-          // May happen because ot the internal thread pool used in the async file system.
-          promise.fail(e);
-        }
-      });
+      .forEach(file -> futures.add(loader.load(this, file)));
 
     Future.all(futures).onComplete(ar -> {
       if (ar.failed()) {
@@ -293,23 +392,63 @@ public class FileSet {
    * @return the list of files
    */
   public static List<File> traverse(File root) {
+    return walk(root, null);
+  }
+
+  /**
+   * List the files from a directory (recursive), skipping the directories which cannot contain a file of the given
+   * sets. The symbolic links are followed, except those creating a loop.
+   *
+   * @param root the root
+   * @param sets the sets
+   * @return the list of files
+   */
+  public static List<File> traverse(File root, List<FileSet> sets) {
+    return walk(root, sets);
+  }
+
+  private static List<File> walk(File root, List<FileSet> sets) {
     List<File> files = new ArrayList<>();
     if (!root.isDirectory()) {
       return files;
-    } else {
-      File[] children = root.listFiles();
-      if (children == null) {
-        return files;
-      } else {
-        for (File file : children) {
-          if (file.isDirectory()) {
-            files.addAll(traverse(file));
-          } else {
-            files.add(file);
+    }
+    Path start = root.toPath();
+    try {
+      Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+            if (sets == null || dir.equals(start)) {
+              return FileVisitResult.CONTINUE;
+            }
+            String relative = start.relativize(dir).toString();
+            for (FileSet set : sets) {
+              if (set.mayContain(relative)) {
+                return FileVisitResult.CONTINUE;
+              }
+            }
+            return FileVisitResult.SKIP_SUBTREE;
           }
-        }
-      }
-      return files;
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            if (!attributes.isDirectory()) {
+              files.add(file.toFile());
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException e) {
+            if (e instanceof FileSystemLoopException) {
+              LOGGER.debug("Ignoring `" + file + "`, a symbolic link creating a loop");
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
+    return files;
   }
 }
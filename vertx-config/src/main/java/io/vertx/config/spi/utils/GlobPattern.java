@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.spi.utils;
+
+import java.io.File;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A pattern selecting files by their path relative to the root of a {@link FileSet}, compiled once. The matching is
+ * case-insensitive and {@code /} separates the directories, whatever the platform.
+ * <p>
+ * By default, as {@link FileSet#match(String, String, boolean)}, the pattern may contain:
+ * <ul>
+ * <li>{@code *} - zero or more characters, including {@code /}</li>
+ * <li>{@code ?} - one character</li>
+ * </ul>
+ * The other characters are literal, except {@code \} which also separates the directories on Windows.
+ * <p>
+ * With the glob syntax, the pattern may also contain:
+ * <ul>
+ * <li>{@code **}{@code /} - zero or more directories</li>
+ * <li>{@code [abc]}, {@code [a-z]}, {@code [!a-z]} - one character of, or not of, the class</li>
+ * <li>{@code {json,yaml}} - one of the alternatives, which are patterns too</li>
+ * <li>{@code \} - escapes the next character</li>
+ * </ul>
+ */
+class GlobPattern {
+
+  private final String glob;
+  // The characters of the paths before the first wildcard, lower case
+  private final String prefix;
+  private final Pattern regex;
+
+  /**
+   * @param glob   the pattern
+   * @param syntax whether the pattern uses the glob syntax
+   * @throws IllegalArgumentException if the pattern is invalid, with the glob syntax
+   */
+  GlobPattern(String glob, boolean syntax) {
+    this.glob = glob;
+    String pattern = glob;
+    if (!syntax && File.separatorChar != '/') {
+      pattern = pattern.replace(File.separatorChar, '/');
+    }
+    String wildcards = syntax ? "*?[{\\" : "*?";
+    int wildcard = 0;
+    while (wildcard < pattern.length() && wildcards.indexOf(pattern.charAt(wildcard)) < 0) {
+      wildcard++;
+    }
+    this.prefix = pattern.substring(0, wildcard).toLowerCase();
+    StringBuilder builder = new StringBuilder();
+    if (syntax) {
+      translate(pattern, 0, builder, false);
+    } else {
+      translateWildcards(pattern, builder);
+    }
+    this.regex = Pattern.compile(builder.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+  }
+
+  private static void translateWildcards(String pattern, StringBuilder regex) {
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '*') {
+        regex.append(".*");
+      } else if (c == '?') {
+        regex.append('.');
+      } else {
+        literal(c, regex);
+      }
+    }
+  }
+
+  /**
+   * Translates the glob to a regular expression, until the end of the glob, or the end of the current alternative.
+   *
+   * @return the index of the first character not translated
+   */
+  private static int translate(String glob, int index, StringBuilder regex, boolean alternative) {
+    while (index < glob.length()) {
+      char c = glob.charAt(index);
+      switch (c) {
+        case '*':
+          if (glob.startsWith("**/", index)) {
+            regex.append("(?:.*/)?");
+            index += 3;
+          } else {
+            // Spans the directories, as a single one always did
+            regex.append(".*");
+            while (index < glob.length() && glob.charAt(index) == '*') {
+              index++;
+            }
+          }
+          break;
+        case '?':
+          regex.append('.');
+          index++;
+          break;
+        case '[':
+          index = translateClass(glob, index, regex);
+          break;
+        case '{':
+          regex.append("(?:");
+          index++;
+          while (true) {
+            index = translate(glob, index, regex, true);
+            if (index == glob.length()) {
+              throw new IllegalArgumentException("Invalid pattern `" + glob + "`, missing `}`");
+            }
+            if (glob.charAt(index++) == '}') {
+              break;
+            }
+            regex.append('|');
+          }
+          regex.append(')');
+          break;
+        case ',':
+        case '}':
+          if (alternative) {
+            return index;
+          }
+          literal(c, regex);
+          index++;
+          break;
+        case '\\':
+          if (index + 1 == glob.length()) {
+            throw new IllegalArgumentException("Invalid pattern `" + glob + "`, nothing to escape");
+          }
+          literal(glob.charAt(index + 1), regex);
+          index += 2;
+          break;
+        default:
+          literal(c, regex);
+          index++;
+      }
+    }
+    return index;
+  }
+
+  private static int translateClass(String glob, int index, StringBuilder regex) {
+    int end = glob.indexOf(']', index + 2);
+    if (end < 0) {
+      throw new IllegalArgumentException("Invalid pattern `" + glob + "`, missing `]`");
+    }
+    regex.append('[');
+    int i = index + 1;
+    if (glob.charAt(i) == '!' || glob.charAt(i) == '^') {
+      regex.append('^');
+      i++;
+    }
+    for (; i < end; i++) {
+      char c = glob.charAt(i);
+      if (c == '-' && i > index + 1 && i < end - 1) {
+        regex.append('-');
+      } else if (Character.isLetterOrDigit(c)) {
+        regex.append(c);
+      } else {
+        regex.append('\\').append(c);
+      }
+    }
+    regex.append(']');
+    return end + 1;
+  }
+
+  private static void literal(char c, StringBuilder regex) {
+    if (Character.isLetterOrDigit(c) || c == '/') {
+      regex.append(c);
+    } else {
+      regex.append('\\').append(c);
+    }
+  }
+
+  /**
+   * @param path the path relative to the root, using the separator of the platform
+   * @return whether the path matches the pattern
+   */
+  boolean matches(String path) {
+    if (File.separatorChar != '/') {
+      path = path.replace(File.separatorChar, '/');
+    }
+    // Most of the paths are rejected by their first characters
+    return path.regionMatches(true, 0, prefix, 0, prefix.length()) && regex.matcher(path).matches();
+  }
+
+  /**
+   * @param directory the path of a directory relative to the root, using the separator of the platform
+   * @return whether a path of the directory, or of its sub-directories, may match the pattern
+   */
+  boolean mayContain(String directory) {
+    if (File.separatorChar != '/') {
+      directory = directory.replace(File.separatorChar, '/');
+    }
+    String path = directory + "/";
+    int length = Math.min(prefix.length(), path.length());
+    if (!path.regionMatches(true, 0, prefix, 0, length)) {
+      return false;
+    }
+    Matcher matcher = regex.matcher(path);
+    // Unless the end of the path has been reached, no longer path can match
+    return matcher.matches() || matcher.hitEnd();
+  }
+
+  @Override
+  public String toString() {
+    return glob;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.benchmarks;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the reads of the cached configuration by concurrent threads.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Pbenchmarks -Dbenchmark=CachedConfigBenchmark}, and set the number of
+ * threads, 8 by default, with {@code -Dbenchmark.threads}. The contention between the readers only shows on a machine
+ * with at least as many cores as threads: with fewer cores, the threads take turns and the results mostly reflect the
+ * cost of the copy of the configuration, so they say nothing about the locking of the read paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class CachedConfigBenchmark {
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Setup
+  public void setup() {
+    JsonObject config = new JsonObject();
+    for (int i = 0; i < size; i++) {
+      config.put("key-" + i, new JsonObject()
+        .put("string", "value-" + i)
+        .put("number", i)
+        .put("array", new JsonArray().add(i).add(i + 1)));
+    }
+    vertx = Vertx.vertx();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .addStore(new ConfigStoreOptions().setType("json").setConfig(config)));
+    retriever.getConfig().await();
+  }
+
+  @TearDown
+  public void tearDown() {
+    retriever.close();
+    vertx.close().await();
+  }
+
+  @Benchmark
+  public JsonObject getCachedConfig() {
+    return retriever.getCachedConfig();
+  }
+
+  @Benchmark
+  public JsonObject getCachedConfigSnapshot() {
+    return retriever.getCachedConfigSnapshot();
+  }
+}
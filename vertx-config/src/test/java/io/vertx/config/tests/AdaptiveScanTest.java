@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the backoff, jitter and scan period after a change.
+ */
+@RunWith(VertxUnitRunner.class)
+public class AdaptiveScanTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+    System.clearProperty("adaptive-scan-key");
+  }
+
+  @Test
+  public void testBackoffOfFailingStore(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(20)
+      .setMaxScanBackoff(10000)
+      .addStore(new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", 0))));
+    SlowConfigStore store = (SlowConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      store.setFailing(true);
+      int reads = store.reads();
+      vertx.setTimer(600, l -> {
+        // Without backoff, the store would be read about 30 times
+        int failedReads = store.reads() - reads;
+        tc.assertTrue(failedReads > 0 && failedReads < 10, "Unexpected number of reads: " + failedReads);
+        // The last good configuration is kept
+        tc.assertEquals(0, retriever.getCachedConfig().getInteger("delay"));
+        store.setFailing(false);
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testScanPeriodAfterChange(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(500)
+      .setScanPeriodAfterChange(10)
+      .addStore(new ConfigStoreOptions().setType("sys").setConfig(new JsonObject().put("cache", false))));
+    AtomicInteger changes = new AtomicInteger();
+    AtomicLong updated = new AtomicLong();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        if (changes.incrementAndGet() == 1) {
+          // Detected by the regular scan, the next change is expected quickly
+          updated.set(System.currentTimeMillis());
+          System.setProperty("adaptive-scan-key", "second");
+        } else {
+          tc.assertEquals("second", change.getNewConfiguration().getString("adaptive-scan-key"));
+          long elapsed = System.currentTimeMillis() - updated.get();
+          tc.assertTrue(elapsed < 250, "Change detected after " + elapsed + " ms");
+          async.complete();
+        }
+      });
+      System.setProperty("adaptive-scan-key", "first");
+    }));
+  }
+
+  @Test
+  public void testJitter(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(20)
+      .setScanJitter(0.5)
+      .addStore(new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", 0))));
+    SlowConfigStore store = (SlowConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore();
+    vertx.setTimer(500, l -> {
+      // Between 10 and 30 ms between two scans
+      tc.assertTrue(store.reads() >= 10 && store.reads() <= 50, "Unexpected number of reads: " + store.reads());
+      async.complete();
+    });
+  }
+
+  @Test
+  public void testOptions() {
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions()
+      .setScanJitter(0.2)
+      .setMaxScanBackoff(60000)
+      .setScanPeriodAfterChange(500);
+    ConfigRetrieverOptions copy = new ConfigRetrieverOptions(new ConfigRetrieverOptions(options.toJson()));
+    assertThat(copy.getScanJitter()).isEqualTo(0.2);
+    assertThat(copy.getMaxScanBackoff()).isEqualTo(60000);
+    assertThat(copy.getScanPeriodAfterChange()).isEqualTo(500);
+    assertThatThrownBy(() -> options.setScanJitter(2)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,68 @@
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigChange;
+import io.vertx.config.ConfigValueChange;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigChangeTest {
+
+  private static final JsonObject PREVIOUS = new JsonObject()
+    .put("unchanged", "value")
+    .put("modified", 1)
+    .put("removed", true)
+    .put("nested", new JsonObject().put("a/b", "x").put("same", 2))
+    .put("array", new JsonArray().add(1).add(2));
+
+  private static final JsonObject NEW = new JsonObject()
+    .put("unchanged", "value")
+    .put("modified", 2)
+    .put("nested", new JsonObject().put("a/b", "y").put("same", 2L))
+    .put("array", new JsonArray().add(1).add(3))
+    .put("added", new JsonObject().put("key", "value"));
+
+  @Test
+  public void testChanges() {
+    List<ConfigValueChange> changes = new ConfigChange(PREVIOUS, NEW).getChanges();
+    assertThat(changes).extracting(ConfigValueChange::getPath)
+      .containsExactlyInAnyOrder("/modified", "/removed", "/nested/a~1b", "/array", "/added");
+    ConfigValueChange removed = changes.stream().filter(c -> c.getPath().equals("/removed")).findFirst().get();
+    assertThat(removed.getPreviousValue()).isEqualTo(true);
+    assertThat(removed.getNewValue()).isNull();
+    ConfigValueChange added = changes.stream().filter(c -> c.getPath().equals("/added")).findFirst().get();
+    assertThat(added.getPreviousValue()).isNull();
+    assertThat(added.getNewValue()).isEqualTo(new JsonObject().put("key", "value"));
+  }
+
+  @Test
+  public void testNoChanges() {
+    ConfigChange change = new ConfigChange(PREVIOUS, PREVIOUS.copy());
+    assertThat(change.getChanges()).isEmpty();
+    assertThat(change.toPatch()).isEmpty();
+  }
+
+  @Test
+  public void testChangesAreResetWhenConfigurationIsSet() {
+    ConfigChange change = new ConfigChange(PREVIOUS, PREVIOUS);
+    assertThat(change.getChanges()).isEmpty();
+    change.setNewConfiguration(NEW);
+    assertThat(change.getChanges()).hasSize(5);
+  }
+
+  @Test
+  public void testPatch() {
+    JsonArray patch = new ConfigChange(PREVIOUS, NEW).toPatch();
+    assertThat(patch).contains(
+      new JsonObject().put("op", "replace").put("path", "/modified").put("value", 2),
+      new JsonObject().put("op", "remove").put("path", "/removed"),
+      new JsonObject().put("op", "replace").put("path", "/nested/a~1b").put("value", "y"),
+      new JsonObject().put("op", "replace").put("path", "/array").put("value", new JsonArray().add(1).add(3)),
+      new JsonObject().put("op", "add").put("path", "/added").put("value", new JsonObject().put("key", "value")));
+    assertThat(patch).hasSize(5);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigSnapshotCodec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the binary encoding of the configurations sent on the event bus.
+ */
+public class ConfigSnapshotCodecTest {
+
+  private static JsonObject sample() {
+    return new JsonObject()
+      .put("string", "hello")
+      .put("unicode", "héllo 世界")
+      .put("empty", "")
+      .put("int", 42)
+      .put("negative", -7)
+      .put("long", Long.MAX_VALUE)
+      .put("min", Long.MIN_VALUE)
+      .put("double", 3.14)
+      .put("decimal", new BigDecimal("12345678901234567890.5"))
+      .put("true", true)
+      .put("false", false)
+      .putNull("null")
+      .put("binary", Buffer.buffer(new byte[]{0, 1, 2, (byte) 255}))
+      .put("nested", new JsonObject().put("string", "hello").put("array", new JsonArray().add(1).add("hello")
+        .add(new JsonArray()).add(new JsonObject()).addNull()));
+  }
+
+  @Test
+  public void testRoundTrip() {
+    JsonObject json = sample();
+    Buffer encoded = ConfigSnapshotCodec.encode(json);
+    JsonObject decoded = ConfigSnapshotCodec.decode(encoded);
+    assertThat(decoded).isEqualTo(json);
+    assertThat(decoded.getValue("int")).isInstanceOf(Integer.class);
+    assertThat(decoded.getValue("long")).isInstanceOf(Long.class);
+    assertThat(decoded.getBinary("binary")).containsExactly(0, 1, 2, 255);
+    assertThat(decoded.fieldNames()).containsExactlyElementsOf(json.fieldNames());
+  }
+
+  @Test
+  public void testEmpty() {
+    assertThat(ConfigSnapshotCodec.decode(ConfigSnapshotCodec.encode(new JsonObject()))).isEqualTo(new JsonObject());
+  }
+
+  @Test
+  public void testLargeConfigurationsAreSmaller() {
+    JsonArray flags = new JsonArray();
+    for (int i = 0; i < 1000; i++) {
+      flags.add(new JsonObject().put("name", "flag-" + i).put("enabled", i % 2 == 0).put("rollout", i % 100)
+        .put("owner", "team-" + (i % 5)));
+    }
+    JsonObject json = new JsonObject().put("flags", flags);
+    Buffer encoded = ConfigSnapshotCodec.encode(json);
+    assertThat(encoded.length()).isLessThan(json.toBuffer().length() / 4);
+    assertThat(ConfigSnapshotCodec.decode(encoded)).isEqualTo(json);
+  }
+
+  @Test
+  public void testWireFormat() {
+    ConfigSnapshotCodec codec = new ConfigSnapshotCodec();
+    JsonObject json = sample();
+    Buffer buffer = Buffer.buffer("prefix");
+    codec.encodeToWire(buffer, json);
+    buffer.appendString("suffix");
+    assertThat(codec.decodeFromWire(6, buffer)).isEqualTo(json);
+
+    JsonObject copy = codec.transform(json);
+    assertThat(copy).isEqualTo(json).isNotSameAs(json);
+  }
+
+  @Test
+  public void testInvalidBuffers() {
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(Buffer.buffer("{\"a\":1}")))
+      .isInstanceOf(DecodeException.class);
+    Buffer encoded = ConfigSnapshotCodec.encode(sample());
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(encoded.getBuffer(0, encoded.length() - 3)))
+      .isInstanceOf(DecodeException.class);
+  }
+
+  private static Buffer binary(int flags, int... body) {
+    Buffer buffer = Buffer.buffer("VXCB").appendByte((byte) 1).appendByte((byte) flags);
+    for (int b : body) {
+      buffer.appendByte((byte) b);
+    }
+    return buffer;
+  }
+
+  @Test
+  public void testMalformedBuffers() {
+    // 2^31 - 1 strings announced
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07)))
+      .isInstanceOf(DecodeException.class);
+    // A negative string length
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(0, 1,
+      0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01)))
+      .isInstanceOf(DecodeException.class);
+    // An object of 2^28 entries, and a binary value longer than the buffer
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(0, 0, 6, 0xFF, 0xFF, 0xFF, 0x7F)))
+      .isInstanceOf(DecodeException.class);
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(0, 0, 6, 1, 0, 8, 0x7F)))
+      .isInstanceOf(DecodeException.class);
+    // A reference to a missing string, and an unknown type
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(0, 0, 6, 1, 3, 0)))
+      .isInstanceOf(DecodeException.class);
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(0, 0, 42)))
+      .isInstanceOf(DecodeException.class);
+    // 2 GB announced once inflated
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(binary(1, 0x7F, 0xFF, 0xFF, 0xFF, 0x78, 0x9C, 0x03, 0x00)))
+      .isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  public void testDeepNesting() {
+    Buffer buffer = binary(0, 1, 1, 'k', 6, 1, 0);
+    for (int i = 0; i < 100_000; i++) {
+      // Arrays of one element
+      buffer.appendByte((byte) 7).appendByte((byte) 1);
+    }
+    buffer.appendByte((byte) 0);
+    assertThatThrownBy(() -> ConfigSnapshotCodec.decode(buffer)).isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  public void testInvalidWireLength() {
+    Buffer wire = Buffer.buffer().appendInt(-1).appendBuffer(ConfigSnapshotCodec.encode(sample()));
+    assertThatThrownBy(() -> new ConfigSnapshotCodec().decodeFromWire(0, wire)).isInstanceOf(DecodeException.class);
+  }
+}
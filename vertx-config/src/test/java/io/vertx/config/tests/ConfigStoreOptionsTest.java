@@ -5,6 +5,7 @@ import io.vertx.core.json.JsonObject;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
 public class ConfigStoreOptionsTest {
@@ -32,6 +33,7 @@ public class ConfigStoreOptionsTest {
     ConfigStoreOptions options = new ConfigStoreOptions();
     ConfigStoreOptions copy = new ConfigStoreOptions(options);
     assertThat(copy.isOptional()).isFalse();
+    assertThat(copy.getScanPeriod()).isNull();
     assertThat(copy.getConfig()).isNull();
     assertThat(copy.getFormat()).isEqualTo(options.getFormat()).isNull();
     assertThat(copy.getType()).isEqualTo(options.getType()).isNull();
@@ -43,11 +45,45 @@ public class ConfigStoreOptionsTest {
     options.setOptional(true)
       .setType("file")
       .setConfig(new JsonObject().put("key", "value"))
-      .setFormat("yaml");
+      .setFormat("yaml")
+      .setScanPeriod(60000L);
     ConfigStoreOptions copy = new ConfigStoreOptions(options);
     assertThat(copy.isOptional()).isTrue();
+    assertThat(copy.getScanPeriod()).isEqualTo(60000L);
     assertThat(copy.getConfig()).containsExactly(entry("key", "value"));
     assertThat(copy.getFormat()).isEqualTo(options.getFormat()).isEqualTo("yaml");
     assertThat(copy.getType()).isEqualTo(options.getType()).isEqualTo("file");
   }
+
+  @Test
+  public void testScanPeriodJsonRoundTrip() {
+    ConfigStoreOptions options = new ConfigStoreOptions().setType("git").setScanPeriod(300000L);
+    JsonObject json = options.toJson();
+    assertThat(json.getLong("scanPeriod")).isEqualTo(300000L);
+    assertThat(new ConfigStoreOptions(json).getScanPeriod()).isEqualTo(300000L);
+    assertThat(new ConfigStoreOptions().setType("git").toJson().containsKey("scanPeriod")).isFalse();
+  }
+
+  @Test
+  public void testLastGoodJsonRoundTrip() {
+    ConfigStoreOptions options = new ConfigStoreOptions().setType("http").setName("remote").setMaxStaleness(60000L);
+    ConfigStoreOptions copy = new ConfigStoreOptions(new ConfigStoreOptions(options.toJson()));
+    assertThat(copy.getName()).isEqualTo("remote");
+    assertThat(copy.getMaxStaleness()).isEqualTo(60000L);
+    JsonObject json = new ConfigStoreOptions().setType("http").toJson();
+    assertThat(json.containsKey("name")).isFalse();
+    assertThat(json.containsKey("maxStaleness")).isFalse();
+  }
+
+  @Test
+  public void testSlowStoreJsonRoundTrip() {
+    ConfigStoreOptions options = new ConfigStoreOptions().setType("consul")
+      .setTimeout(1000L).setHedgePercentile(95.0).setStaleWhileRevalidate(true);
+    ConfigStoreOptions copy = new ConfigStoreOptions(new ConfigStoreOptions(options.toJson()));
+    assertThat(copy.getTimeout()).isEqualTo(1000L);
+    assertThat(copy.getHedgePercentile()).isEqualTo(95.0);
+    assertThat(copy.isStaleWhileRevalidate()).isTrue();
+    assertThatThrownBy(() -> new ConfigStoreOptions().setHedgePercentile(0.0))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
 }
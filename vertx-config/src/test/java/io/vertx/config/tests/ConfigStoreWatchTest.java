@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.tests.spi.WatchingConfigStore;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the behavior of the retriever with stores notifying their changes.
+ */
+@RunWith(VertxUnitRunner.class)
+public class ConfigStoreWatchTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  private ConfigRetrieverOptions options(long scanPeriod) {
+    return new ConfigRetrieverOptions()
+      .setScanPeriod(scanPeriod)
+      .addStore(new ConfigStoreOptions().setType("watching").setConfig(new JsonObject().put("key", "value")))
+      .addStore(new ConfigStoreOptions().setType("json").setConfig(new JsonObject().put("other", "value")));
+  }
+
+  private WatchingConfigStore store() {
+    return (WatchingConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore();
+  }
+
+  @Test
+  public void testWatchedStoreIsNotPolled(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, options(10));
+    WatchingConfigStore store = store();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals("value", json.getString("key"));
+      vertx.setTimer(200, l -> {
+        // Only read when the configuration was explicitly requested
+        tc.assertEquals(1, store.reads());
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testChangesArePropagatedWithoutScan(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, options(-1));
+    WatchingConfigStore store = store();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        tc.assertEquals("value", change.getPreviousConfiguration().getString("key"));
+        tc.assertEquals("updated", change.getNewConfiguration().getString("key"));
+        tc.assertEquals("value", change.getNewConfiguration().getString("other"));
+        tc.assertEquals("updated", retriever.getCachedConfig().getString("key"));
+        tc.assertEquals(1, store.reads());
+        async.complete();
+      });
+      store.update(new JsonObject().put("key", "updated"));
+    }));
+  }
+}
@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -103,6 +104,51 @@ public class ConfigurationRetrieverTest {
     });
   }
 
+  @Test
+  public void testListenersGetTheirOwnChange(TestContext tc) {
+    retriever = ConfigRetriever.create(vertx,
+      addStores(new ConfigRetrieverOptions().setScanPeriod(10)));
+    Async async = tc.async();
+
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        change.getNewConfiguration().put("foo", "modified");
+        change.getNewConfiguration().getJsonObject("sub").put("foo", "modified");
+      });
+      retriever.listen(change -> {
+        tc.assertEquals("bar", change.getNewConfiguration().getString("foo"));
+        tc.assertEquals("new-value", change.getNewConfiguration().getString("key"));
+        tc.assertEquals("bar", change.getNewConfiguration().getJsonObject("sub").getString("foo"));
+        tc.assertEquals("bar", retriever.getCachedConfig().getJsonObject("sub").getString("foo"));
+        async.complete();
+      });
+      System.setProperty("key", "new-value");
+    }));
+  }
+
+  @Test
+  public void testCachedConfigSnapshot(TestContext tc) {
+    retriever = ConfigRetriever.create(vertx,
+      addStores(new ConfigRetrieverOptions()));
+    Async async = tc.async();
+
+    retriever.getConfig().onComplete(ar -> {
+      ConfigChecker.check(ar);
+      JsonObject snapshot = retriever.getCachedConfigSnapshot();
+      ConfigChecker.check(snapshot);
+      assertThat(retriever.getCachedConfigSnapshot()).isSameAs(snapshot);
+      assertThatThrownBy(() -> snapshot.put("foo", "baz")).isInstanceOf(UnsupportedOperationException.class);
+      assertThatThrownBy(() -> snapshot.getJsonObject("sub").put("foo", "baz"))
+        .isInstanceOf(UnsupportedOperationException.class);
+      assertThatThrownBy(() -> snapshot.getJsonArray("array").add("baz"))
+        .isInstanceOf(UnsupportedOperationException.class);
+      JsonObject copy = snapshot.copy().put("foo", "baz");
+      assertThat(copy.getString("foo")).isEqualTo("baz");
+      assertThat(snapshot.getString("foo")).isEqualTo("bar");
+      async.complete();
+    });
+  }
+
   @Test
   public void testLoadingWithProcessor(TestContext tc) {
     retriever = ConfigRetriever.create(vertx,
@@ -34,6 +34,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -61,11 +62,12 @@ public class ConfigurationStreamTest {
   }
 
   @After
-  public void tearDown() {
+  public void tearDown() throws Exception {
     if (doClose) {
       retriever.close();
     }
-    vertx.close();
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no handler can be running
     System.clearProperty("key");
     System.clearProperty("foo");
   }
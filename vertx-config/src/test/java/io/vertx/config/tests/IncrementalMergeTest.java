@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the configuration is only merged again when a store changes.
+ */
+@RunWith(VertxUnitRunner.class)
+public class IncrementalMergeTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no scan can be running
+    System.clearProperty("nested.added");
+  }
+
+  private static ConfigRetrieverOptions options() {
+    return new ConfigRetrieverOptions()
+      .setScanPeriod(10)
+      .addStore(new ConfigStoreOptions().setType("json")
+        .setConfig(new JsonObject().put("nested", new JsonObject().put("key", "value"))))
+      .addStore(new ConfigStoreOptions().setType("sys")
+        .setConfig(new JsonObject().put("cache", false).put("hierarchical", true)));
+  }
+
+  @Test
+  public void testProcessorNotCalledWhenNothingChanged(TestContext tc) {
+    Async async = tc.async();
+    AtomicInteger calls = new AtomicInteger();
+    retriever = ConfigRetriever.create(vertx, options())
+      .setConfigurationProcessor(json -> {
+        calls.incrementAndGet();
+        return json;
+      });
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals(1, calls.get());
+      vertx.setTimer(200, l -> {
+        tc.assertEquals(1, calls.get());
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testUnchangedLayersAreNotAltered(TestContext tc) {
+    Async async = tc.async();
+    AtomicInteger step = new AtomicInteger();
+    retriever = ConfigRetriever.create(vertx, options());
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals(new JsonObject().put("key", "value"), json.getJsonObject("nested"));
+      retriever.listen(change -> {
+        JsonObject nested = change.getNewConfiguration().getJsonObject("nested");
+        if (step.getAndIncrement() == 0) {
+          tc.assertEquals(new JsonObject().put("key", "value").put("added", "value"), nested);
+          System.clearProperty("nested.added");
+        } else {
+          // The nested object of the first store must not contain the key merged from the second one
+          tc.assertEquals(new JsonObject().put("key", "value"), nested);
+          async.complete();
+        }
+      });
+      System.setProperty("nested.added", "value");
+    }));
+  }
+
+  @Test
+  public void testProcessorDoesNotAlterTheLayers(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, options())
+      .setConfigurationProcessor(json -> {
+        JsonObject nested = json.getJsonObject("nested");
+        nested.put("processed", nested.getInteger("processed", 0) + 1);
+        return json;
+      });
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals(1, json.getJsonObject("nested").getInteger("processed"));
+      retriever.listen(change -> {
+        // Processed from the merge of the first store, not from the previous outcome
+        tc.assertEquals(1, change.getNewConfiguration().getJsonObject("nested").getInteger("processed"));
+        tc.assertEquals("value", change.getNewConfiguration().getJsonObject("nested").getString("added"));
+        async.complete();
+      });
+      System.setProperty("nested.added", "value");
+    }));
+  }
+
+  @Test
+  public void testModifyingTheConfigurationDoesNotAlterTheMerge(TestContext tc) {
+    retriever = ConfigRetriever.create(vertx, options());
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      json.getJsonObject("nested").put("key", "modified");
+      json.put("other", true);
+      // Nothing changed, so the last merge is reused
+      retriever.getConfig().onComplete(tc.asyncAssertSuccess(again -> {
+        tc.assertEquals(new JsonObject().put("key", "value"), again.getJsonObject("nested"));
+        tc.assertFalse(again.containsKey("other"));
+      }));
+    }));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigChange;
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the last good configuration kept when a store fails.
+ */
+@RunWith(VertxUnitRunner.class)
+public class LastKnownGoodTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no scan can be running
+    System.clearProperty("last-good-key");
+  }
+
+  private SlowConfigStore create(Long maxStaleness) {
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(20)
+      .addStore(new ConfigStoreOptions().setType("slow").setName("remote").setOptional(true)
+        .setMaxStaleness(maxStaleness)
+        .setConfig(new JsonObject().put("delay", 0)))
+      .addStore(new ConfigStoreOptions().setType("sys").setConfig(new JsonObject().put("cache", false))));
+    return (SlowConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore();
+  }
+
+  @Test
+  public void testLastGoodConfigurationIsKept(TestContext tc) {
+    Async async = tc.async();
+    SlowConfigStore store = create(60000L);
+    List<ConfigChange> changes = new CopyOnWriteArrayList<>();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals(0, json.getInteger("delay"));
+      retriever.listen(changes::add);
+      store.setFailing(true);
+      vertx.setTimer(200, l -> {
+        // The failures do not change the configuration
+        tc.assertTrue(changes.isEmpty(), "Unexpected changes: " + changes.size());
+        tc.assertEquals(0, retriever.getCachedConfig().getInteger("delay"));
+        retriever.listen(change -> {
+          tc.assertEquals("value", change.getNewConfiguration().getString("last-good-key"));
+          tc.assertEquals(0, change.getNewConfiguration().getInteger("delay"));
+          tc.assertEquals(List.of("remote"), change.getStaleStores());
+          async.complete();
+        });
+        System.setProperty("last-good-key", "value");
+      });
+    }));
+  }
+
+  @Test
+  public void testStaleFlagIsCleared(TestContext tc) {
+    Async async = tc.async();
+    SlowConfigStore store = create(60000L);
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      store.setFailing(true);
+      vertx.setTimer(100, l -> {
+        store.setFailing(false);
+        vertx.setTimer(100, l2 -> {
+          retriever.listen(change -> {
+            tc.assertTrue(change.getStaleStores().isEmpty());
+            async.complete();
+          });
+          System.setProperty("last-good-key", "value");
+        });
+      });
+    }));
+  }
+
+  @Test
+  public void testMaxStaleness(TestContext tc) {
+    Async async = tc.async();
+    SlowConfigStore store = create(100L);
+    // The last good configuration cannot be older
+    long begin = System.currentTimeMillis();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        // The configuration of the store is dropped once too old
+        tc.assertFalse(change.getNewConfiguration().containsKey("delay"));
+        tc.assertTrue(change.getStaleStores().isEmpty());
+        tc.assertTrue(System.currentTimeMillis() - begin >= 100);
+        async.complete();
+      });
+      store.setFailing(true);
+    }));
+  }
+
+  @Test
+  public void testWithoutMaxStaleness(TestContext tc) {
+    Async async = tc.async();
+    SlowConfigStore store = create(null);
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        tc.assertFalse(change.getNewConfiguration().containsKey("delay"));
+        async.complete();
+      });
+      store.setFailing(true);
+    }));
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.config.tests.spi.SlowConfigStoreFactory;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the election of the retriever reading the stores for the others. The retrievers of a single Vert.x instance
+ * stand for the nodes of a cluster, the local locks and event bus behaving as the clustered ones.
+ */
+@RunWith(VertxUnitRunner.class)
+public class LeaderTest {
+
+  private Vertx vertx;
+  private final List<ConfigRetrieverImpl> retrievers = new ArrayList<>();
+  private final List<SlowConfigStore> stores = new ArrayList<>();
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    retrievers.forEach(ConfigRetriever::close);
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no scan can be running
+    System.clearProperty("leader-key");
+  }
+
+  private ConfigRetrieverImpl node() {
+    ConfigRetrieverImpl retriever = (ConfigRetrieverImpl) ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setLeaderAddress("config-leader")
+      .setScanPeriod(20)
+      .addStore(new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", 0)))
+      .addStore(new ConfigStoreOptions().setType("sys").setConfig(new JsonObject().put("cache", false))));
+    retrievers.add(retriever);
+    stores.add(SlowConfigStoreFactory.last());
+    return retriever;
+  }
+
+  private List<ConfigRetrieverImpl> leaders() {
+    return retrievers.stream().filter(ConfigRetrieverImpl::isLeader).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testOnlyTheLeaderReadsTheStores(TestContext tc) {
+    Async async = tc.async();
+    for (int i = 0; i < 3; i++) {
+      node();
+    }
+    Future.all(retrievers.stream().map(ConfigRetriever::getConfig).collect(Collectors.toList()))
+      .onComplete(tc.asyncAssertSuccess(v -> vertx.setTimer(200, l -> {
+        tc.assertEquals(1, leaders().size());
+        for (int i = 0; i < retrievers.size(); i++) {
+          tc.assertEquals(0L, retrievers.get(i).getCachedConfig().getLong("delay"));
+          if (retrievers.get(i).isLeader()) {
+            // Read by the scans
+            tc.assertTrue(stores.get(i).reads() > 1);
+          } else {
+            tc.assertEquals(0, stores.get(i).reads());
+          }
+        }
+        async.complete();
+      })));
+  }
+
+  @Test
+  public void testChangesAreDistributed(TestContext tc) {
+    Async async = tc.async(3);
+    for (int i = 0; i < 3; i++) {
+      node();
+    }
+    Future.all(retrievers.stream().map(ConfigRetriever::getConfig).collect(Collectors.toList()))
+      .onComplete(tc.asyncAssertSuccess(v -> {
+        for (ConfigRetriever retriever : retrievers) {
+          retriever.listen(change -> {
+            tc.assertEquals("value", change.getNewConfiguration().getString("leader-key"));
+            async.countDown();
+          });
+        }
+        System.setProperty("leader-key", "value");
+      }));
+  }
+
+  @Test
+  public void testTakeOver(TestContext tc) {
+    Async async = tc.async(2);
+    for (int i = 0; i < 3; i++) {
+      node();
+    }
+    Future.all(retrievers.stream().map(ConfigRetriever::getConfig).collect(Collectors.toList()))
+      .onComplete(tc.asyncAssertSuccess(v -> {
+        ConfigRetrieverImpl leader = leaders().get(0);
+        retrievers.remove(leader);
+        leader.close();
+        vertx.setPeriodic(10, id -> {
+          if (leaders().size() == 1) {
+            vertx.cancelTimer(id);
+            for (ConfigRetriever retriever : retrievers) {
+              retriever.listen(change -> {
+                tc.assertEquals("new-leader", change.getNewConfiguration().getString("leader-key"));
+                async.countDown();
+              });
+            }
+            System.setProperty("leader-key", "new-leader");
+          }
+        });
+      }));
+  }
+
+  @Test
+  public void testConfigurationsOfThePreviousLeadersAreIgnored(TestContext tc) {
+    Async async = tc.async();
+    ConfigRetrieverImpl leader = node();
+    leader.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      ConfigRetrieverImpl follower = node();
+      follower.getConfig().onComplete(tc.asyncAssertSuccess(config -> {
+        follower.listen(change -> {
+          tc.assertEquals("value", change.getNewConfiguration().getString("leader-key"));
+          async.complete();
+        });
+        // Delivered late, from a leader having published more configurations than the current one
+        vertx.eventBus().publish("config-leader", new JsonObject().put("version", 100).put("complete", true)
+          .put("config", new JsonObject().put("leader-key", "stale")));
+        System.setProperty("leader-key", "value");
+      }));
+    }));
+  }
+
+  @Test
+  public void testFollowerGetsTheConfigurationOfTheLeader(TestContext tc) {
+    ConfigRetrieverImpl first = node();
+    first.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertTrue(first.isLeader());
+      ConfigRetrieverImpl follower = node();
+      follower.getConfig().onComplete(tc.asyncAssertSuccess(config -> {
+        tc.assertFalse(follower.isLeader());
+        tc.assertEquals(json, config);
+        tc.assertEquals(0, stores.get(1).reads());
+        // The follower gets its own copy
+        config.put("delay", 42);
+        tc.assertEquals(0L, follower.getCachedConfig().getLong("delay"));
+      }));
+    }));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the listeners registered on parts of the configuration.
+ */
+@RunWith(VertxUnitRunner.class)
+public class PathListenerTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no scan can be running
+    System.clearProperty("scoped.changed");
+    System.clearProperty("scoped.a/b");
+  }
+
+  private ConfigRetriever create() {
+    return ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(10)
+      .addStore(new ConfigStoreOptions().setType("json")
+        .setConfig(new JsonObject().put("scoped", new JsonObject().put("unchanged", "value"))))
+      .addStore(new ConfigStoreOptions().setType("sys")
+        .setConfig(new JsonObject().put("cache", false).put("hierarchical", true))));
+  }
+
+  @Test
+  public void testOnlyChangedPathsAreNotified(TestContext tc) {
+    Async async = tc.async();
+    retriever = create();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen("/scoped/unchanged", change -> tc.fail("Unexpected change of " + change.getPath()));
+      retriever.listen("/other", change -> tc.fail("Unexpected change of " + change.getPath()));
+      retriever.listen("/scoped/changed", change -> {
+        tc.assertEquals("/scoped/changed", change.getPath());
+        tc.assertNull(change.getPreviousValue());
+        tc.assertEquals("value", change.getNewValue());
+        // Let the other listeners be notified before completing
+        vertx.setTimer(100, l -> async.complete());
+      });
+      System.setProperty("scoped.changed", "value");
+    }));
+  }
+
+  @Test
+  public void testParentsAreNotified(TestContext tc) {
+    Async async = tc.async(2);
+    retriever = create();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen("/scoped", change -> {
+        tc.assertEquals(new JsonObject().put("unchanged", "value"), change.getPreviousValue());
+        tc.assertEquals(new JsonObject().put("unchanged", "value").put("a/b", "value"), change.getNewValue());
+        async.countDown();
+      });
+      retriever.listen("/scoped/a~1b", change -> {
+        tc.assertEquals("value", change.getNewValue());
+        async.countDown();
+      });
+      System.setProperty("scoped.a/b", "value");
+    }));
+  }
+
+  @Test
+  public void testListenersGetTheirOwnValues(TestContext tc) {
+    Async async = tc.async();
+    retriever = create();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen("/scoped", change -> ((JsonObject) change.getNewValue()).put("unchanged", "modified"));
+      retriever.listen("/scoped", change -> {
+        tc.assertEquals(new JsonObject().put("unchanged", "value").put("changed", "value"), change.getNewValue());
+        tc.assertEquals("value", retriever.getCachedConfig().getJsonObject("scoped").getString("unchanged"));
+        async.complete();
+      });
+      System.setProperty("scoped.changed", "value");
+    }));
+  }
+
+  @Test
+  public void testInvalidPointer() {
+    retriever = create();
+    assertThatThrownBy(() -> retriever.listen("path", change -> {
+    })).isInstanceOf(IllegalArgumentException.class);
+  }
+}
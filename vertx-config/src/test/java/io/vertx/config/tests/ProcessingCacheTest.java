@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.impl.ConfigurationProvider;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that unchanged content is not processed again.
+ */
+@RunWith(VertxUnitRunner.class)
+public class ProcessingCacheTest {
+
+  private static final File FILE = new File("target/processing-cache.json");
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+    vertx.fileSystem().writeFileBlocking(FILE.getPath(), new JsonObject().put("key", "value").toBuffer());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    FILE.delete();
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testUnchangedContentIsNotProcessed(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(10)
+      .addStore(new ConfigStoreOptions().setType("file").setConfig(new JsonObject().put("path", FILE.getPath()))));
+    ConfigurationProvider provider = ((ConfigRetrieverImpl) retriever).getProviders().get(0);
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals(1L, provider.getCacheMisses());
+      vertx.setTimer(200, l -> {
+        tc.assertEquals(1L, provider.getCacheMisses());
+        tc.assertTrue(provider.getCacheHits() > 0);
+        retriever.listen(change -> {
+          tc.assertEquals("updated", change.getNewConfiguration().getString("key"));
+          tc.assertEquals(2L, provider.getCacheMisses());
+          async.complete();
+        });
+        vertx.fileSystem().writeFileBlocking(FILE.getPath(), new JsonObject().put("key", "updated").toBuffer());
+      });
+    }));
+  }
+
+  @Test
+  public void testContentOfTheSameLengthIsProcessed(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(10)
+      .addStore(new ConfigStoreOptions().setType("file").setConfig(new JsonObject().put("path", FILE.getPath()))));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        tc.assertEquals("other", change.getNewConfiguration().getString("key"));
+        async.complete();
+      });
+      vertx.fileSystem().writeFileBlocking(FILE.getPath(), new JsonObject().put("key", "other").toBuffer());
+    }));
+  }
+
+  @Test
+  public void testStructuredStoresAreNotProcessed(TestContext tc) {
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .addStore(new ConfigStoreOptions().setType("json").setConfig(new JsonObject().put("key", "value"))));
+    ConfigurationProvider provider = ((ConfigRetrieverImpl) retriever).getProviders().get(0);
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals("value", json.getString("key"));
+      tc.assertEquals(0L, provider.getCacheMisses());
+    }));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigChange;
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the progressive retrieval of the configuration.
+ */
+@RunWith(VertxUnitRunner.class)
+public class ProgressiveRetrievalTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  private static ConfigStoreOptions slow(String key, long delay) {
+    return new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", delay).put(key, true));
+  }
+
+  @Test
+  public void testLocalStoresArePublishedFirst(TestContext tc) {
+    Async async = tc.async(2);
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(0)
+      .setProgressive(true)
+      .addStore(new ConfigStoreOptions().setType("json").setConfig(new JsonObject().put("local", true)))
+      .addStore(slow("remote", 300)));
+    retriever.listen(change -> {
+      tc.assertTrue(change.isComplete());
+      tc.assertTrue(change.getNewConfiguration().getBoolean("remote"));
+      tc.assertTrue(change.getNewConfiguration().getBoolean("local"));
+      async.countDown();
+    });
+    long begin = System.currentTimeMillis();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertTrue(System.currentTimeMillis() - begin < 300);
+      tc.assertEquals(new JsonObject().put("local", true), json);
+      retriever.getCompleteConfig().onComplete(tc.asyncAssertSuccess(complete -> {
+        tc.assertEquals(300, complete.getInteger("delay"));
+        async.countDown();
+      }));
+    }));
+  }
+
+  @Test
+  public void testPartialConfigurations(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(0)
+      .setProgressive(true)
+      .addStore(slow("first", 400))
+      .addStore(slow("second", 50)));
+    List<ConfigChange> changes = new CopyOnWriteArrayList<>();
+    retriever.listen(change -> {
+      changes.add(change);
+      if (change.isComplete()) {
+        tc.assertEquals(2, changes.size());
+        ConfigChange partial = changes.get(0);
+        tc.assertFalse(partial.isComplete());
+        tc.assertEquals(new JsonObject().put("delay", 50).put("second", true), partial.getNewConfiguration());
+        // The overloading rules are kept: the second store overrides the first one
+        tc.assertEquals(new JsonObject().put("delay", 50).put("first", true).put("second", true),
+          change.getNewConfiguration());
+        async.complete();
+      }
+    });
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> tc.assertTrue(json.isEmpty())));
+  }
+
+  @Test
+  public void testStoreNotDeferred(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(0)
+      .setProgressive(true)
+      .addStore(slow("remote", 100).setDeferred(false))
+      .addStore(slow("other", 10)));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertTrue(json.getBoolean("remote"));
+      async.complete();
+    }));
+  }
+}
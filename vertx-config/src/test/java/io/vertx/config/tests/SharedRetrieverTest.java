@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.SharedConfigRetriever;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.config.tests.spi.SlowConfigStoreFactory;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the retrievers and stores shared in a Vert.x instance.
+ */
+@RunWith(VertxUnitRunner.class)
+public class SharedRetrieverTest {
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no scan can be running
+    System.clearProperty("shared-key");
+  }
+
+  private static ConfigStoreOptions slow() {
+    return new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", 50).put("name", "shared"));
+  }
+
+  @Test
+  public void testSameOptionsShareTheRetriever(TestContext tc) {
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions().setShared(true).setScanPeriod(0).addStore(slow());
+    int created = SlowConfigStoreFactory.created();
+    ConfigRetriever first = ConfigRetriever.create(vertx, options);
+    ConfigRetriever second = ConfigRetriever.create(vertx, new ConfigRetrieverOptions(options));
+    tc.assertEquals(((SharedConfigRetriever) first).getDelegate(), ((SharedConfigRetriever) second).getDelegate());
+    tc.assertEquals(created + 1, SlowConfigStoreFactory.created());
+    SlowConfigStore store = SlowConfigStoreFactory.last();
+    Future.all(first.getConfig(), second.getConfig()).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertEquals(1, store.reads());
+      tc.assertEquals("shared", first.getCachedConfig().getString("name"));
+      tc.assertEquals("shared", second.getCachedConfig().getString("name"));
+    }));
+  }
+
+  @Test
+  public void testStoresAreShared(TestContext tc) {
+    int created = SlowConfigStoreFactory.created();
+    ConfigRetriever first = ConfigRetriever.create(vertx,
+      new ConfigRetrieverOptions().setShared(true).setScanPeriod(0).addStore(slow()));
+    ConfigRetriever second = ConfigRetriever.create(vertx,
+      new ConfigRetrieverOptions().setShared(true).setScanPeriod(0).addStore(slow())
+        .addStore(new ConfigStoreOptions().setType("json").setConfig(new JsonObject().put("other", true))));
+    tc.assertNotEquals(((SharedConfigRetriever) first).getDelegate(), ((SharedConfigRetriever) second).getDelegate());
+    tc.assertEquals(created + 1, SlowConfigStoreFactory.created());
+    SlowConfigStore store = SlowConfigStoreFactory.last();
+    Future.all(first.getConfig(), second.getConfig()).onComplete(tc.asyncAssertSuccess(v -> {
+      // The read in progress is shared
+      tc.assertEquals(1, store.reads());
+      tc.assertTrue(second.getCachedConfig().getBoolean("other"));
+    }));
+  }
+
+  @Test
+  public void testReferenceCounting(TestContext tc) {
+    Async async = tc.async();
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions().setShared(true).setScanPeriod(0).addStore(slow());
+    ConfigRetriever first = ConfigRetriever.create(vertx, options);
+    ConfigRetriever second = ConfigRetriever.create(vertx, options);
+    SlowConfigStore store = SlowConfigStoreFactory.last();
+    first.close().onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertFalse(store.isClosed());
+      second.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+        second.close().onComplete(tc.asyncAssertSuccess(v2 -> {
+          tc.assertTrue(store.isClosed());
+          // Created again once closed
+          int created = SlowConfigStoreFactory.created();
+          ConfigRetriever.create(vertx, options);
+          tc.assertEquals(created + 1, SlowConfigStoreFactory.created());
+          async.complete();
+        }));
+      }));
+    }));
+  }
+
+  @Test
+  public void testChangesAreDispatched(TestContext tc) {
+    Async async = tc.async(4);
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions().setShared(true).setScanPeriod(20)
+      .addStore(new ConfigStoreOptions().setType("sys").setConfig(new JsonObject().put("cache", false)));
+    ConfigRetriever first = ConfigRetriever.create(vertx, options);
+    ConfigRetriever second = ConfigRetriever.create(vertx, options);
+    Future.all(first.getConfig(), second.getConfig()).onComplete(tc.asyncAssertSuccess(v -> {
+      for (ConfigRetriever retriever : new ConfigRetriever[]{first, second}) {
+        retriever.listen(change -> {
+          tc.assertEquals("value", change.getNewConfiguration().getString("shared-key"));
+          async.countDown();
+        });
+        retriever.listen("/shared-key", change -> async.countDown());
+      }
+      System.setProperty("shared-key", "value");
+    }));
+  }
+
+  @Test
+  public void testStoresOutliveTheVerticleCreatingThem(TestContext tc) {
+    Async async = tc.async();
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions().setShared(true).setScanPeriod(20)
+      .addStore(new ConfigStoreOptions().setType("event-bus").setConfig(new JsonObject().put("address", "shared-conf")));
+    AtomicReference<ConfigRetriever> second = new AtomicReference<>();
+    vertx.deployVerticle(new RetrieverVerticle(options, new AtomicReference<>())).onComplete(tc.asyncAssertSuccess(
+      first -> vertx.deployVerticle(new RetrieverVerticle(options, second)).onComplete(tc.asyncAssertSuccess(
+        id -> vertx.undeploy(first).onComplete(tc.asyncAssertSuccess(v -> {
+          second.get().listen(change -> {
+            tc.assertEquals("value", change.getNewConfiguration().getString("key"));
+            async.complete();
+          });
+          // Received by the consumer of the store, created by the undeployed verticle
+          vertx.eventBus().publish("shared-conf", new JsonObject().put("key", "value"));
+        }))))));
+  }
+
+  @Test
+  public void testUndeployReleasesTheRetriever(TestContext tc) {
+    Async async = tc.async();
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions().setShared(true).setScanPeriod(20).addStore(slow());
+    // Not closed by the verticles
+    vertx.deployVerticle(new RetrieverVerticle(options, new AtomicReference<>())).onComplete(tc.asyncAssertSuccess(
+      first -> vertx.deployVerticle(new RetrieverVerticle(options, new AtomicReference<>())).onComplete(
+        tc.asyncAssertSuccess(second -> {
+          SlowConfigStore store = SlowConfigStoreFactory.last();
+          vertx.undeploy(first).onComplete(tc.asyncAssertSuccess(v -> {
+            tc.assertFalse(store.isClosed());
+            vertx.undeploy(second).onComplete(tc.asyncAssertSuccess(v2 -> {
+              tc.assertTrue(store.isClosed());
+              async.complete();
+            }));
+          }));
+        }))));
+  }
+
+  @Test
+  public void testEachRetrieverGetsItsOwnCopy(TestContext tc) {
+    Async async = tc.async(2);
+    ConfigRetrieverOptions options = new ConfigRetrieverOptions().setShared(true).setScanPeriod(20)
+      .addStore(new ConfigStoreOptions().setType("sys").setConfig(new JsonObject().put("cache", false)));
+    ConfigRetriever first = ConfigRetriever.create(vertx, options);
+    ConfigRetriever second = ConfigRetriever.create(vertx, options);
+    first.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      json.put("shared-key", "mutated");
+      second.getConfig().onComplete(tc.asyncAssertSuccess(other -> {
+        tc.assertNull(other.getString("shared-key"));
+        first.listen(change -> {
+          change.getNewConfiguration().put("shared-key", "mutated");
+          async.countDown();
+        });
+        second.listen(change -> vertx.setTimer(10, l -> {
+          tc.assertEquals("value", change.getNewConfiguration().getString("shared-key"));
+          tc.assertEquals("value", second.getCachedConfig().getString("shared-key"));
+          async.countDown();
+        }));
+        System.setProperty("shared-key", "value");
+      }));
+    }));
+  }
+
+  @Test
+  public void testProcessorIsNotSupported() {
+    ConfigRetriever retriever = ConfigRetriever.create(vertx,
+      new ConfigRetrieverOptions().setShared(true).setScanPeriod(0).addStore(slow()));
+    assertThatThrownBy(() -> retriever.setConfigurationProcessor(json -> json))
+      .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  private static class RetrieverVerticle extends AbstractVerticle {
+
+    private final ConfigRetrieverOptions options;
+    private final AtomicReference<ConfigRetriever> retriever;
+
+    private RetrieverVerticle(ConfigRetrieverOptions options, AtomicReference<ConfigRetriever> retriever) {
+      this.options = options;
+      this.retriever = retriever;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+      retriever.set(ConfigRetriever.create(vertx, options));
+      retriever.get().getConfig().<Void>mapEmpty().onComplete(startPromise);
+    }
+  }
+}
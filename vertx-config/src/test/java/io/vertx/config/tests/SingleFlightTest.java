@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.impl.ConfigurationProvider;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that slow stores are not queried concurrently.
+ */
+@RunWith(VertxUnitRunner.class)
+public class SingleFlightTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  private ConfigRetriever create(long scanPeriod) {
+    return ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(scanPeriod)
+      .addStore(new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", 200))));
+  }
+
+  private SlowConfigStore store() {
+    return (SlowConfigStore) provider().getStore();
+  }
+
+  private ConfigurationProvider provider() {
+    return ((ConfigRetrieverImpl) retriever).getProviders().get(0);
+  }
+
+  @Test
+  public void testScansDoNotOverlap(TestContext tc) {
+    Async async = tc.async();
+    retriever = create(20);
+    vertx.setTimer(1000, l -> {
+      tc.assertEquals(1, store().maxConcurrentReads());
+      tc.assertTrue(store().reads() <= 6, "Too many reads: " + store().reads());
+      tc.assertTrue(((ConfigRetrieverImpl) retriever).getSkippedScans() > 0);
+      async.complete();
+    });
+  }
+
+  @Test
+  public void testGetConfigJoinsRetrievalInProgress(TestContext tc) {
+    retriever = create(-1);
+    Future<JsonObject> first = retriever.getConfig();
+    Future<JsonObject> second = retriever.getConfig();
+    Future.all(first, second).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertEquals(200, first.result().getInteger("delay"));
+      tc.assertEquals(first.result(), second.result());
+      tc.assertEquals(1, store().reads());
+      tc.assertEquals(1L, provider().getCoalescedFetches());
+    }));
+  }
+}
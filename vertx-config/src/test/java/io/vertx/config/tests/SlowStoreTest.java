@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.impl.ConfigurationProvider;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks the timeout, hedging and stale-while-revalidate of the stores.
+ */
+@RunWith(VertxUnitRunner.class)
+public class SlowStoreTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  private ConfigurationProvider create(ConfigStoreOptions store) {
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions().setScanPeriod(0).addStore(store));
+    return ((ConfigRetrieverImpl) retriever).getProviders().get(0);
+  }
+
+  private static ConfigStoreOptions slow(long delay) {
+    return new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", delay));
+  }
+
+  @Test
+  public void testTimeout(TestContext tc) {
+    Async async = tc.async();
+    create(slow(5000).setTimeout(100L));
+    long begin = System.currentTimeMillis();
+    retriever.getConfig().onComplete(tc.asyncAssertFailure(err -> {
+      tc.assertTrue(err instanceof TimeoutException);
+      tc.assertTrue(System.currentTimeMillis() - begin < 2000);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testTimedOutReadIsNotRepeated(TestContext tc) {
+    Async async = tc.async();
+    ConfigurationProvider provider = create(slow(500).setTimeout(50L));
+    SlowConfigStore store = (SlowConfigStore) provider.getStore();
+    retriever.getConfig().onComplete(tc.asyncAssertFailure(err -> {
+      tc.assertTrue(err instanceof TimeoutException);
+      // The first read is still in progress
+      retriever.getConfig().onComplete(tc.asyncAssertFailure(err2 -> {
+        tc.assertTrue(err2 instanceof TimeoutException);
+        tc.assertEquals(1, store.reads());
+        // Read again once the first read responded
+        vertx.setTimer(500, l -> retriever.getConfig().onComplete(tc.asyncAssertFailure(err3 -> {
+          tc.assertEquals(2, store.reads());
+          async.complete();
+        })));
+      }));
+    }));
+  }
+
+  @Test
+  public void testTimeoutOfOptionalStore(TestContext tc) {
+    Async async = tc.async();
+    create(slow(5000).setTimeout(100L).setOptional(true));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertTrue(json.isEmpty());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testHedging(TestContext tc) {
+    Async async = tc.async();
+    ConfigurationProvider provider = create(slow(10).setHedgePercentile(90.0));
+    SlowConfigStore store = (SlowConfigStore) provider.getStore();
+    Future<JsonObject> reads = Future.succeededFuture();
+    for (int i = 0; i < 10; i++) {
+      reads = reads.compose(v -> retriever.getConfig());
+    }
+    reads.onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertEquals(0L, provider.getHedgedReads());
+      store.setNextDelay(5000);
+      long begin = System.currentTimeMillis();
+      retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+        // Served by the second read
+        tc.assertEquals(1L, provider.getHedgedReads());
+        tc.assertTrue(System.currentTimeMillis() - begin < 2000);
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testFastStoresAreNotHedged(TestContext tc) {
+    Async async = tc.async();
+    ConfigurationProvider provider = create(slow(0).setHedgePercentile(90.0));
+    SlowConfigStore store = (SlowConfigStore) provider.getStore();
+    Future<JsonObject> reads = Future.succeededFuture();
+    for (int i = 0; i < 10; i++) {
+      reads = reads.compose(v -> retriever.getConfig());
+    }
+    reads.onComplete(tc.asyncAssertSuccess(v -> {
+      // Longer than the latency of the store, but shorter than the minimum delay before hedging
+      store.setNextDelay(3);
+      retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+        tc.assertEquals(0L, provider.getHedgedReads());
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testStoreThrowing(TestContext tc) {
+    Async async = tc.async();
+    ConfigurationProvider provider = create(slow(0));
+    SlowConfigStore store = (SlowConfigStore) provider.getStore();
+    store.setThrowing(true);
+    retriever.getConfig().onComplete(tc.asyncAssertFailure(err -> {
+      tc.assertEquals("throwing store", err.getMessage());
+      store.setThrowing(false);
+      // Not waiting for the failed retrieval
+      retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+        tc.assertEquals(0, json.getInteger("delay"));
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testStaleWhileRevalidate(TestContext tc) {
+    Async async = tc.async();
+    ConfigurationProvider provider = create(slow(0).setOptional(true).setStaleWhileRevalidate(true));
+    SlowConfigStore store = (SlowConfigStore) provider.getStore();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      store.setDelay(300);
+      store.setFailing(true);
+      retriever.listen(change -> {
+        // The outcome of the read in the background
+        tc.assertTrue(change.getNewConfiguration().isEmpty());
+        async.complete();
+      });
+      long begin = System.currentTimeMillis();
+      retriever.getConfig().onComplete(tc.asyncAssertSuccess(stale -> {
+        tc.assertTrue(System.currentTimeMillis() - begin < 300);
+        tc.assertEquals(0, stale.getInteger("delay"));
+      }));
+    }));
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.ConfigRetrieverImpl;
+import io.vertx.config.tests.spi.SlowConfigStore;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the local snapshot of the configuration.
+ */
+@RunWith(VertxUnitRunner.class)
+public class SnapshotFileTest {
+
+  private static final File SNAPSHOT = new File("target/snapshot-test/config.snapshot");
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) throws IOException {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+    Files.deleteIfExists(SNAPSHOT.toPath());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  private ConfigRetriever create(long delay, String secret) {
+    return ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(0)
+      .setSnapshotPath(SNAPSHOT.getPath())
+      .setSnapshotSecret(secret)
+      .addStore(new ConfigStoreOptions().setType("slow").setConfig(new JsonObject().put("delay", delay))));
+  }
+
+  private void awaitSnapshot(TestContext tc, Runnable next) {
+    vertx.setPeriodic(10, id -> {
+      if (SNAPSHOT.isFile()) {
+        vertx.cancelTimer(id);
+        next.run();
+      }
+    });
+  }
+
+  @Test
+  public void testSnapshotIsWritten(TestContext tc) {
+    Async async = tc.async();
+    retriever = create(0, null);
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> awaitSnapshot(tc, () -> {
+      try {
+        tc.assertEquals(json, new JsonObject(Files.readString(SNAPSHOT.toPath())));
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+      async.complete();
+    })));
+  }
+
+  @Test
+  public void testSnapshotIsServedThenRevalidated(TestContext tc) throws IOException {
+    Async async = tc.async();
+    SNAPSHOT.getParentFile().mkdirs();
+    Files.writeString(SNAPSHOT.toPath(), new JsonObject().put("delay", 1).encode());
+    retriever = create(500, null);
+    retriever.listen(change -> {
+      tc.assertEquals(1, change.getPreviousConfiguration().getInteger("delay"));
+      tc.assertEquals(500, change.getNewConfiguration().getInteger("delay"));
+      tc.assertEquals(500, retriever.getCachedConfig().getInteger("delay"));
+      async.complete();
+    });
+    long begin = System.currentTimeMillis();
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      // Served without waiting for the store
+      tc.assertEquals(1, json.getInteger("delay"));
+      tc.assertTrue(System.currentTimeMillis() - begin < 500);
+    }));
+  }
+
+  @Test
+  public void testSnapshotIsServedWhenStoresFail(TestContext tc) throws IOException {
+    Async async = tc.async();
+    SNAPSHOT.getParentFile().mkdirs();
+    Files.writeString(SNAPSHOT.toPath(), new JsonObject().put("delay", 1).encode());
+    retriever = create(0, null);
+    ((SlowConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore()).setFailing(true);
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals(1, json.getInteger("delay"));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testEncryptedSnapshot(TestContext tc) {
+    Async async = tc.async();
+    retriever = create(0, "s3cr3t");
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> awaitSnapshot(tc, () -> {
+      try {
+        tc.assertFalse(new String(Files.readAllBytes(SNAPSHOT.toPath()), "ISO-8859-1").contains("delay"));
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+      retriever.close();
+      retriever = create(0, "s3cr3t");
+      ((SlowConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore()).setFailing(true);
+      retriever.getConfig().onComplete(tc.asyncAssertSuccess(snapshot -> {
+        tc.assertEquals(json, snapshot);
+        retriever.close();
+        // Cannot be decrypted with another secret, the stores are read
+        retriever = create(0, "other");
+        ((SlowConfigStore) ((ConfigRetrieverImpl) retriever).getProviders().get(0).getStore()).setFailing(true);
+        retriever.getConfig().onComplete(tc.asyncAssertFailure(err -> async.complete()));
+      }));
+    })));
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests;
+
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the per-store scan periods.
+ */
+@RunWith(VertxUnitRunner.class)
+public class StoreScanPeriodTest {
+
+  private Vertx vertx;
+  private ConfigRetriever retriever;
+
+  @Before
+  public void setUp(TestContext tc) {
+    vertx = Vertx.vertx();
+    vertx.exceptionHandler(tc.exceptionHandler());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (retriever != null) {
+      retriever.close();
+    }
+    vertx.close().await(20, TimeUnit.SECONDS);
+    // Cleared once no scan can be running
+    System.clearProperty("scan-period-key");
+  }
+
+  private static ConfigStoreOptions sys(Long scanPeriod) {
+    return new ConfigStoreOptions().setType("sys")
+      .setScanPeriod(scanPeriod)
+      .setConfig(new JsonObject().put("cache", false));
+  }
+
+  @Test
+  public void testStoreNotScanned(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(10)
+      .addStore(new ConfigStoreOptions().setType("json").setConfig(new JsonObject().put("foo", "bar")))
+      .addStore(sys(0L)));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> tc.fail("The store must not be scanned"));
+      tc.assertNull(json.getString("scan-period-key"));
+      System.setProperty("scan-period-key", "value");
+      vertx.setTimer(200, l -> {
+        tc.assertNull(retriever.getCachedConfig().getString("scan-period-key"));
+        // Explicit retrievals still read the store
+        retriever.getConfig().onComplete(tc.asyncAssertSuccess(json2 -> {
+          tc.assertEquals("value", json2.getString("scan-period-key"));
+          tc.assertEquals("bar", json2.getString("foo"));
+          async.complete();
+        }));
+      });
+    }));
+  }
+
+  @Test
+  public void testStorePeriodOverridesRetrieverPeriod(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(-1)
+      .addStore(new ConfigStoreOptions().setType("json").setConfig(new JsonObject().put("foo", "bar")))
+      .addStore(sys(10L)));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      retriever.listen(change -> {
+        tc.assertEquals("value", change.getNewConfiguration().getString("scan-period-key"));
+        tc.assertEquals("bar", change.getNewConfiguration().getString("foo"));
+        async.complete();
+      });
+      System.setProperty("scan-period-key", "value");
+    }));
+  }
+}
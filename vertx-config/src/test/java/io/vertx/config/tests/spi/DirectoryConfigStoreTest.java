@@ -31,6 +31,15 @@ import io.vertx.ext.unit.TestContext;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -340,5 +349,166 @@ public class DirectoryConfigStoreTest extends ConfigStoreTestBase {
     });
   }
 
+  @Test
+  public void testUnchangedFilesAreNotReadAgain(TestContext tc) throws IOException {
+    Path root = directory();
+    long old = System.currentTimeMillis() - 3_600_000;
+    write(root.resolve("a.json"), new JsonObject().put("a", 1), old);
+    write(root.resolve("b.json"), new JsonObject().put("b", 1), old);
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "*.json"))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(first -> store.getJson().onComplete(tc.asyncAssertSuccess(second -> {
+      tc.assertEquals(new JsonObject().put("a", 1).put("b", 1), first);
+      // Not merged again
+      tc.assertTrue(first == second);
+      try {
+        // Same size and modification time, so not read again
+        write(root.resolve("a.json"), new JsonObject().put("a", 2), old);
+        write(root.resolve("c.json"), new JsonObject().put("c", 1), old);
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+      store.getJson().onComplete(tc.asyncAssertSuccess(third ->
+        tc.assertEquals(new JsonObject().put("a", 1).put("b", 1).put("c", 1), third)));
+    }))));
+  }
+
+  @Test
+  public void testAddedModifiedAndDeletedFiles(TestContext tc) throws IOException {
+    Path root = directory();
+    long old = System.currentTimeMillis() - 3_600_000;
+    write(root.resolve("a.json"), new JsonObject().put("key", "a").put("a", 1), old);
+    write(root.resolve("sub/b.json"), new JsonObject().put("key", "b").put("b", 1), old);
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "*.json"))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(first -> {
+      tc.assertEquals(new JsonObject().put("key", "b").put("a", 1).put("b", 1), first);
+      try {
+        write(root.resolve("a.json"), new JsonObject().put("key", "a").put("a", 2), old + 1000);
+        Files.delete(root.resolve("sub/b.json"));
+        write(root.resolve("sub/c.json"), new JsonObject().put("c", 1), old);
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+      store.get().onComplete(tc.asyncAssertSuccess(second ->
+        tc.assertEquals(new JsonObject().put("key", "a").put("a", 2).put("c", 1), second.toJsonObject())));
+    }));
+  }
+
+  @Test
+  public void testGlobPatterns(TestContext tc) throws IOException {
+    Path root = directory();
+    long old = System.currentTimeMillis() - 3_600_000;
+    write(root.resolve("app.json"), new JsonObject().put("app", true), old);
+    write(root.resolve("conf/a/db.yaml"), new JsonObject().put("db", true), old);
+    write(root.resolve("conf/b/c/web.json"), new JsonObject().put("web", true), old);
+    write(root.resolve("conf/b/c/web.xml"), new JsonObject().put("xml", true), old);
+    write(root.resolve("log1.json"), new JsonObject().put("log1", true), old);
+    write(root.resolve("logx.json"), new JsonObject().put("logx", true), old);
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("filesets", new JsonArray()
+        .add(new JsonObject().put("pattern", "**/APP.json").put("syntax", "glob"))
+        .add(new JsonObject().put("pattern", "conf/**/*.{json,yaml}").put("syntax", "glob"))
+        .add(new JsonObject().put("pattern", "log[0-9].json").put("syntax", "glob"))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(json -> tc.assertEquals(new JsonObject()
+      .put("app", true).put("db", true).put("web", true).put("log1", true), json)));
+  }
+
+  @Test
+  public void testWildcardPatternsAreLiteral(TestContext tc) throws IOException {
+    Path root = directory();
+    long old = System.currentTimeMillis() - 3_600_000;
+    write(root.resolve("app.json"), new JsonObject().put("app", true), old);
+    write(root.resolve("app[prod].json"), new JsonObject().put("prod", true), old);
+    write(root.resolve("app{a,b}.json"), new JsonObject().put("alternatives", true), old);
+    write(root.resolve("conf/app.json"), new JsonObject().put("conf", true), old);
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("filesets", new JsonArray()
+        .add(new JsonObject().put("pattern", "app[prod].json"))
+        .add(new JsonObject().put("pattern", "app{a,b}.*"))
+        // A backslash separates the directories on Windows, and **/ needs a directory
+        .add(new JsonObject().put("pattern", File.separatorChar == '\\' ? "conf\\*.json" : "**/app.json"))
+        .add(new JsonObject().put("pattern", "app[.json"))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(json -> tc.assertEquals(new JsonObject()
+      .put("prod", true).put("alternatives", true).put("conf", true), json)));
+  }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidGlobPattern() {
+    store = factory.create(vertx, new JsonObject().put("path", "src/test/resources")
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "app[.json").put("syntax", "glob"))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPatternSyntax() {
+    store = factory.create(vertx, new JsonObject().put("path", "src/test/resources")
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "*.json").put("syntax", "regex"))));
+  }
+
+  @Test
+  public void testExcludedDirectoriesAndSymbolicLinkLoops(TestContext tc) throws IOException {
+    Path root = directory();
+    long old = System.currentTimeMillis() - 3_600_000;
+    write(root.resolve("app/app.json"), new JsonObject().put("app", true), old);
+    write(root.resolve("app/node_modules/lib/package.json"), new JsonObject().put("lib", true), old);
+    write(root.resolve("logs/app.json"), new JsonObject().put("logs", true), old);
+    // Loops back to the root
+    Files.createSymbolicLink(root.resolve("app/loop"), Paths.get(".."));
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("filesets", new JsonArray()
+        .add(new JsonObject().put("pattern", "app/**/*.json").put("syntax", "glob")
+          .put("exclude", new JsonArray().add("**/node_modules").add("app/loop")))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(json ->
+      tc.assertEquals(new JsonObject().put("app", true), json)));
+  }
+
+  @Test
+  public void testSymbolicLinkLoopsAreNotFollowed(TestContext tc) throws IOException {
+    Path root = directory();
+    write(root.resolve("a/a.json"), new JsonObject().put("a", true), System.currentTimeMillis() - 3_600_000);
+    Files.createSymbolicLink(root.resolve("a/loop"), Paths.get(".."));
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "*.json"))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(json ->
+      tc.assertEquals(new JsonObject().put("a", true), json)));
+  }
+
+  @Test
+  public void testBoundedReadsPreserveTheOrder(TestContext tc) throws IOException {
+    Path root = directory();
+    JsonObject expected = new JsonObject();
+    for (int i = 0; i < 20; i++) {
+      String name = String.format("f%02d", i);
+      write(root.resolve(name + ".json"), new JsonObject().put("key", name).put(name, true),
+        System.currentTimeMillis() - 3_600_000);
+      expected.put(name, true).put("key", name);
+    }
+    store = factory.create(vertx, new JsonObject().put("path", root.toString())
+      .put("parallelism", 2)
+      .put("worker-pool", "directory-store-test")
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "*.json"))));
+    store.getJson().onComplete(tc.asyncAssertSuccess(json -> tc.assertEquals(expected, json)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWithAnInvalidParallelism() {
+    store = factory.create(vertx, new JsonObject().put("path", "src/test/resources").put("parallelism", 0)
+      .put("filesets", new JsonArray().add(new JsonObject().put("pattern", "*.json"))));
+  }
+
+  private static void write(Path file, JsonObject json, long modified) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, json.toBuffer().getBytes());
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+  }
+
+  private static Path directory() throws IOException {
+    Path directory = Paths.get("target", "directory-store-test");
+    if (Files.exists(directory)) {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+      }
+    }
+    return Files.createDirectories(directory);
+  }
 }
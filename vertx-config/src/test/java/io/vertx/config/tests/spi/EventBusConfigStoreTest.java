@@ -17,14 +17,24 @@
 
 package io.vertx.config.tests.spi;
 
+import io.vertx.config.ConfigRetriever;
+import io.vertx.config.ConfigRetrieverOptions;
+import io.vertx.config.ConfigSnapshotCodec;
+import io.vertx.config.ConfigStoreOptions;
+import io.vertx.config.impl.spi.EventBusConfigStore;
 import io.vertx.config.impl.spi.EventBusConfigStoreFactory;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -57,6 +67,203 @@ public class EventBusConfigStoreTest extends ConfigStoreTestBase {
     testEventBusConfigStore(tc, Buffer.buffer(HttpConfigStoreTest.JSON), false);
   }
 
+  @Test
+  public void testWithBinaryBuffer(TestContext tc) {
+    testEventBusConfigStore(tc, ConfigSnapshotCodec.encode(new JsonObject(HttpConfigStoreTest.JSON)), false);
+  }
+
+  @Test
+  public void testWithCodec(TestContext tc) {
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    vertx.eventBus().publish("config", new JsonObject(HttpConfigStoreTest.JSON), ConfigSnapshotCodec.deliveryOptions());
+    vertx.setTimer(10, tid -> getConfigAndCheck(tc, tc.async()));
+  }
+
+  @Test
+  public void testMergePatch(TestContext tc) {
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    send(new JsonObject().put("a", 1).put("nested", new JsonObject().put("b", 2).put("c", 3)), 1, null);
+    send(new JsonObject().put("nested", new JsonObject().put("b", (Object) null).put("d", 4)).put("e", 5), 2, "merge");
+    awaitConfig(tc, new JsonObject().put("a", 1).put("nested", new JsonObject().put("c", 3).put("d", 4)).put("e", 5));
+  }
+
+  @Test
+  public void testJsonPatch(TestContext tc) {
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    send(new JsonObject().put("a", 1).put("list", new JsonArray().add(1).add(2)).put("nested", new JsonObject()), 1,
+      null);
+    send(new JsonArray()
+      .add(op("test", "/a").put("value", 1))
+      .add(op("add", "/list/1").put("value", 5))
+      .add(op("add", "/list/-").put("value", 6))
+      .add(op("replace", "/a").put("value", "x"))
+      .add(op("copy", "/nested/a").put("from", "/a"))
+      .add(op("move", "/moved").put("from", "/nested"))
+      .add(op("remove", "/list/0"))
+      .add(op("add", "/k~1ey").put("value", true)), 2, "json-patch");
+    awaitConfig(tc, new JsonObject().put("a", "x").put("list", new JsonArray().add(5).add(2).add(6))
+      .put("moved", new JsonObject().put("a", "x")).put("k/ey", true));
+  }
+
+  @Test
+  public void testPatchesDoNotAlterThePreviousConfiguration(TestContext tc) {
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    JsonObject initial = new JsonObject().put("nested", new JsonObject().put("a", 1)).put("other", new JsonObject());
+    send(initial, 1, null);
+    awaitConfig(tc, initial, previous -> {
+      send(new JsonObject().put("nested", new JsonObject().put("a", 2)), 2, "merge");
+      awaitConfig(tc, new JsonObject().put("nested", new JsonObject().put("a", 2)).put("other", new JsonObject()),
+        patched -> {
+          tc.assertEquals(1, previous.getJsonObject("nested").getInteger("a"));
+          // The unchanged parts are shared
+          tc.assertTrue(previous.getJsonObject("other").getMap() == patched.getJsonObject("other").getMap());
+        });
+    });
+  }
+
+  @Test
+  public void testGapRequestsAResync(TestContext tc) {
+    Async async = tc.async();
+    store = factory.create(vertx, new JsonObject().put("address", "config").put("resync-address", "resync"));
+    vertx.eventBus().<JsonObject>consumer("resync", message -> {
+      tc.assertEquals(1L, message.body().getLong("sequence"));
+      // Ignored until the whole configuration is received
+      send(new JsonObject().put("b", 3), 4, "merge");
+      send(new JsonObject().put("a", 10), 3, null);
+      send(new JsonObject().put("b", 4), 4, "merge");
+      awaitConfig(tc, new JsonObject().put("a", 10).put("b", 4), json -> async.complete());
+    });
+    send(new JsonObject().put("a", 1), 1, null);
+    // Already applied
+    send(new JsonObject().put("a", 0), 1, "merge");
+    // Patch 2 is missing
+    send(new JsonObject().put("b", 2), 3, "merge");
+  }
+
+  @Test
+  public void testUnnumberedPatchesAreIgnoredWhileResyncing(TestContext tc) {
+    Async async = tc.async();
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    vertx.eventBus().<JsonObject>consumer("config.resync", message -> {
+      // Would be applied to a configuration missing patch 2
+      vertx.eventBus().send("config", new JsonObject().put("c", 3),
+        new DeliveryOptions().addHeader(EventBusConfigStore.PATCH_HEADER, "merge"));
+      vertx.setTimer(100, l -> awaitConfig(tc, new JsonObject().put("a", 1), json -> {
+        send(new JsonObject().put("a", 10), 3, null);
+        awaitConfig(tc, new JsonObject().put("a", 10), again -> async.complete());
+      }));
+    });
+    send(new JsonObject().put("a", 1), 1, null);
+    send(new JsonObject().put("b", 2), 3, "merge");
+  }
+
+  @Test
+  public void testScansRequestAResyncAgain(TestContext tc) {
+    Async async = tc.async();
+    store = factory.create(vertx, new JsonObject().put("address", "config").put("resync-address", "resync"));
+    AtomicInteger requests = new AtomicInteger();
+    vertx.eventBus().<JsonObject>consumer("resync", message -> {
+      // The first request is not answered
+      if (requests.incrementAndGet() == 2) {
+        tc.assertEquals(1L, message.body().getLong("sequence"));
+        async.complete();
+      }
+    });
+    send(new JsonObject().put("a", 1), 1, null);
+    send(new JsonObject().put("b", 2), 3, "merge");
+    vertx.setPeriodic(100, l -> store.getJson());
+  }
+
+  @Test
+  public void testPublisherRestart(TestContext tc) {
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    send(new JsonObject().put("a", 1), 5, null);
+    send(new JsonObject().put("b", 2), 6, "merge");
+    // The publisher restarted, numbering from 0 again
+    send(new JsonObject().put("a", 10), 0, null);
+    send(new JsonObject().put("b", 20), 1, "merge");
+    awaitConfig(tc, new JsonObject().put("a", 10).put("b", 20));
+  }
+
+  @Test
+  public void testFailingPatchRequestsAResync(TestContext tc) {
+    Async async = tc.async();
+    store = factory.create(vertx, new JsonObject().put("address", "config"));
+    vertx.eventBus().<JsonObject>consumer("config.resync", message -> {
+      // None of the operations has been applied
+      awaitConfig(tc, new JsonObject().put("a", 1), json -> async.complete());
+    });
+    send(new JsonObject().put("a", 1), 1, null);
+    send(new JsonArray().add(op("replace", "/a").put("value", 2)).add(op("remove", "/missing")), 2, "json-patch");
+  }
+
+  @Test
+  public void testChangesArePushedToTheRetriever(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      // Never scanned
+      .setScanPeriod(3_600_000)
+      .addStore(new ConfigStoreOptions().setType("event-bus").setConfig(new JsonObject().put("address", "config"))));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertTrue(json.isEmpty());
+      retriever.listen(change -> {
+        tc.assertEquals("value", change.getNewConfiguration().getString("key"));
+        async.complete();
+      });
+      vertx.eventBus().publish("config", new JsonObject().put("key", "value"));
+    }));
+  }
+
+  @Test
+  public void testNotificationsAreDebounced(TestContext tc) {
+    Async async = tc.async();
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(3_600_000)
+      .addStore(new ConfigStoreOptions().setType("event-bus")
+        .setConfig(new JsonObject().put("address", "config").put("debounce", 50))));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      AtomicInteger changes = new AtomicInteger();
+      retriever.listen(change -> changes.incrementAndGet());
+      for (int i = 1; i <= 10; i++) {
+        send(new JsonObject().put("count", i), i, i == 1 ? null : "merge");
+      }
+      vertx.setTimer(300, l -> {
+        tc.assertEquals(1, changes.get());
+        tc.assertEquals(10, retriever.getCachedConfig().getInteger("count"));
+        async.complete();
+      });
+    }));
+  }
+
+  private static JsonObject op(String op, String path) {
+    return new JsonObject().put("op", op).put("path", path);
+  }
+
+  private void send(Object body, long sequence, String patch) {
+    DeliveryOptions options = new DeliveryOptions().addHeader(EventBusConfigStore.SEQUENCE_HEADER,
+      Long.toString(sequence));
+    if (patch != null) {
+      options.addHeader(EventBusConfigStore.PATCH_HEADER, patch);
+    }
+    vertx.eventBus().send("config", body, options);
+  }
+
+  private void awaitConfig(TestContext tc, JsonObject expected) {
+    Async async = tc.async();
+    awaitConfig(tc, expected, json -> async.complete());
+  }
+
+  private void awaitConfig(TestContext tc, JsonObject expected, Handler<JsonObject> handler) {
+    store.getJson().onComplete(tc.asyncAssertSuccess(json -> {
+      if (json.equals(expected)) {
+        handler.handle(json);
+      } else {
+        // Retry as the messages may not have been dispatched yet.
+        vertx.setTimer(10, tid -> awaitConfig(tc, expected, handler));
+      }
+    }));
+  }
+
   private void testEventBusConfigStore(TestContext tc, Object config, boolean send) {
     store = factory.create(vertx, new JsonObject().put("address", "config"));
     Async async = tc.async(2);
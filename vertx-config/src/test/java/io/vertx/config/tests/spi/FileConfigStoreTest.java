@@ -21,12 +21,23 @@ import io.vertx.config.ConfigRetriever;
 import io.vertx.config.ConfigRetrieverOptions;
 import io.vertx.config.ConfigStoreOptions;
 import io.vertx.config.impl.spi.FileConfigStoreFactory;
+import io.vertx.config.spi.ConfigStore;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -108,6 +119,136 @@ public class FileConfigStoreTest extends ConfigStoreTestBase {
     });
   }
 
+  @Test
+  public void testUnchangedFileIsNotReadAgain(TestContext tc) throws IOException {
+    Path file = directory().resolve("unchanged.json");
+    Files.write(file, new JsonObject().put("key", "one").toBuffer().getBytes());
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+    store = factory.create(vertx, new JsonObject().put("path", file.toString()).put("watch", false));
+    store.get().onComplete(tc.asyncAssertSuccess(first -> store.get().onComplete(tc.asyncAssertSuccess(second -> {
+      tc.assertTrue(first == second);
+      try {
+        // Same size, another modification time
+        Files.write(file, new JsonObject().put("key", "two").toBuffer().getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 1_800_000));
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+      store.get().onComplete(tc.asyncAssertSuccess(third -> tc.assertEquals("two",
+        third.toJsonObject().getString("key"))));
+    }))));
+  }
+
+  @Test
+  public void testRecentlyModifiedFileIsReadAgain(TestContext tc) throws IOException {
+    Path file = directory().resolve("recent.json");
+    Files.write(file, new JsonObject().put("key", "one").toBuffer().getBytes());
+    store = factory.create(vertx, new JsonObject().put("path", file.toString()).put("watch", false));
+    store.get().onComplete(tc.asyncAssertSuccess(first -> {
+      try {
+        // Possibly within the precision of the modification time
+        Files.write(file, new JsonObject().put("key", "two").toBuffer().getBytes());
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+      store.get().onComplete(tc.asyncAssertSuccess(second -> tc.assertEquals("two",
+        second.toJsonObject().getString("key"))));
+    }));
+  }
+
+  @Test
+  public void testChangesAreNotifiedImmediately(TestContext tc) throws IOException {
+    Async async = tc.async();
+    Path file = directory().resolve("watched.json");
+    Files.write(file, new JsonObject().put("key", "one").toBuffer().getBytes());
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      // Never scanned
+      .setScanPeriod(3_600_000)
+      .addStore(new ConfigStoreOptions().setType("file").setConfig(new JsonObject().put("path", file.toString()))));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals("one", json.getString("key"));
+      retriever.listen(change -> {
+        tc.assertEquals("two", change.getNewConfiguration().getString("key"));
+        async.complete();
+      });
+      vertx.fileSystem().writeFileBlocking(file.toString(), new JsonObject().put("key", "two").toBuffer());
+    }));
+  }
+
+  @Test
+  public void testConfigMapUpdate(TestContext tc) throws IOException {
+    Async async = tc.async();
+    // The layout of a Kubernetes ConfigMap volume
+    Path root = directory().resolve("configmap");
+    Files.createDirectories(root.resolve("..2024_01"));
+    Files.write(root.resolve("..2024_01/app.json"), new JsonObject().put("key", "one").toBuffer().getBytes());
+    Files.createSymbolicLink(root.resolve("..data"), Paths.get("..2024_01"));
+    Files.createSymbolicLink(root.resolve("app.json"), Paths.get("..data/app.json"));
+    retriever = ConfigRetriever.create(vertx, new ConfigRetrieverOptions()
+      .setScanPeriod(3_600_000)
+      .addStore(new ConfigStoreOptions().setType("file")
+        .setConfig(new JsonObject().put("path", root.resolve("app.json").toString()))));
+    retriever.getConfig().onComplete(tc.asyncAssertSuccess(json -> {
+      tc.assertEquals("one", json.getString("key"));
+      retriever.listen(change -> {
+        tc.assertEquals("two", change.getNewConfiguration().getString("key"));
+        async.complete();
+      });
+      try {
+        // Same size and, possibly, modification time
+        Files.createDirectories(root.resolve("..2024_02"));
+        Files.write(root.resolve("..2024_02/app.json"), new JsonObject().put("key", "two").toBuffer().getBytes());
+        Files.createSymbolicLink(root.resolve("..data_tmp"), Paths.get("..2024_02"));
+        Files.move(root.resolve("..data_tmp"), root.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(root.resolve("..2024_01/app.json"));
+        Files.delete(root.resolve("..2024_01"));
+      } catch (IOException e) {
+        tc.fail(e);
+      }
+    }));
+  }
+
+  @Test
+  public void testWatchedFilesShareAThreadAndAreStillScanned(TestContext tc) throws IOException {
+    Path directory = directory();
+    Files.write(directory.resolve("first.json"), new JsonObject().put("key", "one").toBuffer().getBytes());
+    Files.write(directory.resolve("second.json"), new JsonObject().put("key", "two").toBuffer().getBytes());
+    long threads = watcherThreads();
+    ConfigStore first = factory.create(vertx, new JsonObject().put("path", directory.resolve("first.json").toString()));
+    ConfigStore second = factory.create(vertx,
+      new JsonObject().put("path", directory.resolve("second.json").toString()));
+    // Notified, but polled as well
+    tc.assertFalse(first.watch(buffer -> {}));
+    tc.assertFalse(second.watch(buffer -> {}));
+    tc.assertEquals(threads + 1, watcherThreads());
+    Async async = tc.async();
+    first.close().compose(v -> {
+      tc.assertEquals(threads + 1, watcherThreads());
+      return second.close();
+    }).onComplete(tc.asyncAssertSuccess(v -> vertx.setPeriodic(10, id -> {
+      if (watcherThreads() == threads) {
+        vertx.cancelTimer(id);
+        async.complete();
+      }
+    })));
+  }
+
+  private static long watcherThreads() {
+    return Thread.getAllStackTraces().keySet().stream()
+      .filter(thread -> thread.getName().equals("vertx-config-file-watcher"))
+      .count();
+  }
+
+  private static Path directory() throws IOException {
+    Path directory = Paths.get("target", "file-store-test");
+    if (Files.exists(directory)) {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+      }
+    }
+    return Files.createDirectories(directory);
+  }
+
   @Test
   public void testLoadingFromAPropertyFileUsingRawData(TestContext context) {
     Async async = context.async();
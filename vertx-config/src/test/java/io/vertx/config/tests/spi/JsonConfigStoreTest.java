@@ -64,6 +64,22 @@ public class JsonConfigStoreTest extends ConfigStoreTestBase {
     });
   }
 
+  @Test
+  public void testConfigurationIsNotShared(TestContext tc) {
+    Async async = tc.async();
+    JsonObject configuration = new JsonObject(JSON);
+    store = factory.create(vertx, configuration);
+
+    store.getJson().onComplete(tc.asyncAssertSuccess(json -> {
+      json.getJsonObject("sub").put("foo", "modified");
+      tc.assertEquals("bar", configuration.getJsonObject("sub").getString("foo"));
+      store.getJson().onComplete(ar -> {
+        ConfigChecker.check(ar);
+        async.complete();
+      });
+    }));
+  }
+
   @Test
   public void testName() {
     assertThat(factory.name()).isNotNull().isEqualTo("json");
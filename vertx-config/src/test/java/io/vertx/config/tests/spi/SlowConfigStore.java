@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests.spi;
+
+import io.vertx.config.spi.ConfigStore;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A configuration store taking {@code delay} ms to return its configuration, used to check the concurrent reads. It
+ * can also be switched to failing, or to throwing instead of returning a future, and its delay changed.
+ */
+public class SlowConfigStore implements ConfigStore {
+
+  private final Vertx vertx;
+  private volatile long delay;
+  private volatile long nextDelay = -1;
+  private final Buffer content;
+  private final AtomicInteger reads = new AtomicInteger();
+  private final AtomicInteger inProgress = new AtomicInteger();
+  private final AtomicInteger maxInProgress = new AtomicInteger();
+  private volatile boolean failing;
+  private volatile boolean throwing;
+  private volatile boolean closed;
+
+  public SlowConfigStore(Vertx vertx, JsonObject configuration) {
+    this.vertx = vertx;
+    this.delay = configuration.getLong("delay", 100L);
+    this.content = configuration.copy().put("delay", this.delay).toBuffer();
+  }
+
+  @Override
+  public Future<Buffer> get() {
+    reads.incrementAndGet();
+    if (throwing) {
+      throw new IllegalStateException("throwing store");
+    }
+    maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+    Promise<Buffer> promise = Promise.promise();
+    long delay = this.delay;
+    if (nextDelay >= 0) {
+      delay = nextDelay;
+      nextDelay = -1;
+    }
+    if (delay > 0) {
+      vertx.setTimer(delay, l -> complete(promise));
+    } else {
+      complete(promise);
+    }
+    return promise.future();
+  }
+
+  private void complete(Promise<Buffer> promise) {
+    inProgress.decrementAndGet();
+    if (failing) {
+      promise.fail("failing store");
+    } else {
+      promise.complete(content);
+    }
+  }
+
+  @Override
+  public Future<Void> close() {
+    closed = true;
+    return Future.succeededFuture();
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public void setFailing(boolean failing) {
+    this.failing = failing;
+  }
+
+  public void setThrowing(boolean throwing) {
+    this.throwing = throwing;
+  }
+
+  public void setDelay(long delay) {
+    this.delay = delay;
+  }
+
+  /**
+   * Sets the delay of the next read only.
+   */
+  public void setNextDelay(long delay) {
+    this.nextDelay = delay;
+  }
+
+  public int reads() {
+    return reads.get();
+  }
+
+  public int maxConcurrentReads() {
+    return maxInProgress.get();
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests.spi;
+
+import io.vertx.config.spi.ConfigStore;
+import io.vertx.config.spi.ConfigStoreFactory;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SlowConfigStoreFactory implements ConfigStoreFactory {
+
+  private static final AtomicInteger created = new AtomicInteger();
+  private static volatile SlowConfigStore last;
+
+  /**
+   * @return the number of stores created since the start of the JVM
+   */
+  public static int created() {
+    return created.get();
+  }
+
+  /**
+   * @return the last created store
+   */
+  public static SlowConfigStore last() {
+    return last;
+  }
+
+  @Override
+  public String name() {
+    return "slow";
+  }
+
+  @Override
+  public ConfigStore create(Vertx vertx, JsonObject configuration) {
+    SlowConfigStore store = new SlowConfigStore(vertx, configuration);
+    created.incrementAndGet();
+    last = store;
+    return store;
+  }
+}
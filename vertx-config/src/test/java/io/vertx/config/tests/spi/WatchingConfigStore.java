@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014 Red Hat, Inc. and others
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.vertx.config.tests.spi;
+
+import io.vertx.config.spi.ConfigStore;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A configuration store notifying its changes, used to check the retriever does not poll it.
+ */
+public class WatchingConfigStore implements ConfigStore {
+
+  private final AtomicInteger reads = new AtomicInteger();
+  private volatile Buffer content;
+  private volatile Handler<Buffer> handler;
+
+  public WatchingConfigStore(JsonObject configuration) {
+    this.content = configuration.toBuffer();
+  }
+
+  @Override
+  public Future<Buffer> get() {
+    reads.incrementAndGet();
+    return Future.succeededFuture(content);
+  }
+
+  @Override
+  public boolean watch(Handler<Buffer> handler) {
+    this.handler = handler;
+    return true;
+  }
+
+  @Override
+  public Future<Void> close() {
+    return Future.succeededFuture();
+  }
+
+  public void update(JsonObject json) {
+    content = json.toBuffer();
+    handler.handle(content);
+  }
+
+  public int reads() {
+    return reads.get();
+  }
+}
@@ -22,6 +22,7 @@ open module io.vertx.config.tests {
     requires junit;
     requires com.fasterxml.jackson.core;
 
-    provides io.vertx.config.spi.ConfigStoreFactory with io.vertx.config.tests.spi.MockEnvVariablesConfigStoreFactory;
+    provides io.vertx.config.spi.ConfigStoreFactory with io.vertx.config.tests.spi.MockEnvVariablesConfigStoreFactory,
+      io.vertx.config.tests.spi.WatchingConfigStoreFactory, io.vertx.config.tests.spi.SlowConfigStoreFactory;
 
 }